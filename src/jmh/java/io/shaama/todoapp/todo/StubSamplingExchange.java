@@ -0,0 +1,45 @@
+package io.shaama.todoapp.todo;
+
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+
+/**
+ * An exchange whose client supports sampling and answers every request at once, so tool calls
+ * pay for the server side of sampling (cache, batcher, guard) but not for a model.
+ */
+class StubSamplingExchange extends McpSyncServerExchange {
+
+    private static final McpSchema.ClientCapabilities CAPABILITIES = McpSchema.ClientCapabilities.builder()
+            .sampling()
+            .build();
+
+    private static final McpSchema.CreateMessageResult ANSWER = McpSchema.CreateMessageResult.builder()
+            .role(McpSchema.Role.ASSISTANT)
+            .content(new McpSchema.TextContent("Octopuses have three hearts."))
+            .model("stub")
+            .build();
+
+    StubSamplingExchange() {
+        // Every method the tools reach is overridden, so there is no async exchange to delegate to
+        super(null);
+    }
+
+    @Override
+    public String sessionId() {
+        return "benchmark";
+    }
+
+    @Override
+    public McpSchema.ClientCapabilities getClientCapabilities() {
+        return CAPABILITIES;
+    }
+
+    @Override
+    public McpSchema.CreateMessageResult createMessage(McpSchema.CreateMessageRequest createMessageRequest) {
+        return ANSWER;
+    }
+
+    @Override
+    public void loggingNotification(McpSchema.LoggingMessageNotification loggingMessageNotification) {
+    }
+}
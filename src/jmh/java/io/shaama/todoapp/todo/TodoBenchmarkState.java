@@ -0,0 +1,88 @@
+package io.shaama.todoapp.todo;
+
+import io.shaama.todoapp.TodoappApplication;
+import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoSpec;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * The application context without a transport, filled with {@code rows} todos before each trial.
+ * {@code store} selects the JPA store on in-memory H2 (the default profile) or the ORM-free
+ * memory store. Tools get a context holding a {@link StubSamplingExchange}, so makeTodo samples
+ * its fact through the sampling cache, batcher and guard against a client that answers at once.
+ */
+@State(Scope.Benchmark)
+public class TodoBenchmarkState {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"jpa", "memory"})
+    public String store;
+
+    ConfigurableApplicationContext context;
+    TodoTools todoTools;
+    TodoService todoService;
+    ToolContext toolContext;
+    long[] ids;
+    private final AtomicLong titles = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--spring.ai.mcp.server.enabled=false",
+                "--logging.level.root=WARN"));
+        if ("memory".equals(store)) {
+            args.add("--spring.profiles.active=memory");
+        }
+        context = new SpringApplicationBuilder(TodoappApplication.class).run(args.toArray(String[]::new));
+        todoTools = context.getBean(TodoTools.class);
+        todoService = context.getBean(TodoService.class);
+        toolContext = new ToolContext(Map.of(McpToolUtils.TOOL_CONTEXT_MCP_EXCHANGE_KEY, new StubSamplingExchange()));
+
+        ids = new long[rows];
+        for (int offset = 0; offset < rows; offset += TodoService.MAX_BULK_SIZE) {
+            int start = offset;
+            List<Todo> saved = todoService.createTodos(IntStream.range(start, Math.min(rows, start + TodoService.MAX_BULK_SIZE))
+                    .mapToObj(i -> TodoSpec.builder().title("Todo " + i).description("Benchmark row " + i).build())
+                    .toList());
+            for (int i = 0; i < saved.size(); i++) {
+                ids[start + i] = saved.get(i).getId();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    /**
+     * A title not used before in the trial, so its fact prompt misses the sampling cache.
+     */
+    String newTitle() {
+        return "Benchmark " + titles.incrementAndGet();
+    }
+}
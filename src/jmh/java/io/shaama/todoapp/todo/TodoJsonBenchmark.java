@@ -0,0 +1,84 @@
+package io.shaama.todoapp.todo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoFact;
+import io.shaama.todoapp.todo.model.TodoToolResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Jackson serialization of tool results, configured like the application's ObjectMapper.
+ * Tool results are written to JSON once for the tool response text, so this is paid on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoJsonBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private Todo todo;
+    private TodoToolResponse toolResponse;
+    private List<Todo> todos;
+    private byte[] todoJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+        todos = LongStream.rangeClosed(1, rows)
+                .mapToObj(id -> Todo.builder()
+                        .id(id)
+                        .title("Todo " + id)
+                        .description("Benchmark row " + id)
+                        .completed(id % 2 == 0)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build())
+                .toList();
+        todo = todos.get(0);
+        toolResponse = TodoToolResponse.builder()
+                .todo(todo)
+                .fact("Octopuses have three hearts.")
+                .factStatus(TodoFact.Status.READY)
+                .build();
+        todoJson = objectMapper.writeValueAsBytes(todo);
+    }
+
+    @Benchmark
+    public String writeTodo() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(todo);
+    }
+
+    @Benchmark
+    public String writeToolResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(toolResponse);
+    }
+
+    @Benchmark
+    public byte[] writeTodoList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(todos);
+    }
+
+    @Benchmark
+    public Todo readTodo() throws JsonProcessingException {
+        return objectMapper.readValue(todoJson, Todo.class);
+    }
+}
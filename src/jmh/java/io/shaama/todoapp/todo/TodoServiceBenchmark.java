@@ -0,0 +1,52 @@
+package io.shaama.todoapp.todo;
+
+import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TodoService without the tool layer, so the difference to {@link TodoToolsBenchmark} is the
+ * cost of the tools themselves (fact generation for makeTodo, argument mapping).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoServiceBenchmark {
+
+    @Benchmark
+    public List<Todo> getAllTodos(TodoBenchmarkState state) {
+        return state.todoService.getAllTodos();
+    }
+
+    @Benchmark
+    public Optional<Todo> getTodoById(TodoBenchmarkState state) {
+        return state.todoService.getTodoById(state.randomId());
+    }
+
+    @Benchmark
+    public TodoPage getTodoPage(TodoBenchmarkState state) {
+        return state.todoService.getTodoPage(null, TodoService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Todo> searchTodos(TodoBenchmarkState state) {
+        return state.todoService.searchTodos("benchmark row", TodoService.DEFAULT_SEARCH_LIMIT);
+    }
+
+    @Benchmark
+    public Todo createTodo(TodoBenchmarkState state) {
+        return state.todoService.createTodo(Todo.builder().title("Benchmark").description("Created by createTodo").build());
+    }
+
+    @Benchmark
+    public Optional<Todo> updateTodo(TodoBenchmarkState state) {
+        return state.todoService.updateTodo(state.randomId(),
+                Todo.builder().title("Changed").description("Changed by updateTodo").completed(true).build());
+    }
+}
@@ -0,0 +1,63 @@
+package io.shaama.todoapp.todo;
+
+import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoToolResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The tool methods as the MCP server calls them, minus JSON-RPC and transport.
+ * makeTodo keeps adding rows for the length of the trial, each with a fact sampled from the stub client.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoToolsBenchmark {
+
+    /**
+     * A fresh todo for every removeTodo invocation, created outside the measured call
+     */
+    @State(Scope.Thread)
+    public static class Removable {
+        long id;
+
+        @Setup(Level.Invocation)
+        public void create(TodoBenchmarkState state) {
+            id = state.todoService.createTodo(Todo.builder().title("Remove me").description("Benchmark").build()).getId();
+        }
+    }
+
+    @Benchmark
+    public List<Todo> fetchAllTodos(TodoBenchmarkState state) {
+        return state.todoTools.fetchAllTodos(state.toolContext);
+    }
+
+    @Benchmark
+    public Optional<Todo> fetchTodoById(TodoBenchmarkState state) {
+        return state.todoTools.fetchTodoById(state.randomId(), state.toolContext);
+    }
+
+    @Benchmark
+    public TodoToolResponse makeTodo(TodoBenchmarkState state) {
+        return state.todoTools.makeTodo(state.newTitle(), "Created by makeTodo", false, state.toolContext);
+    }
+
+    @Benchmark
+    public Optional<Todo> changeTodo(TodoBenchmarkState state) {
+        return state.todoTools.changeTodo(state.randomId(), "Changed", "Changed by changeTodo", true, null, state.toolContext);
+    }
+
+    @Benchmark
+    public boolean removeTodo(TodoBenchmarkState state, Removable removable) {
+        return state.todoTools.removeTodo(removable.id, null, state.toolContext);
+    }
+}
@@ -1,10 +1,12 @@
 package io.shaama.todoapp;
 
 import io.shaama.todoapp.todo.TodoTools;
+import io.shaama.todoapp.utils.ToolMetrics;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 
 @SpringBootApplication
@@ -14,10 +16,13 @@ public class TodoappApplication {
 		SpringApplication.run(TodoappApplication.class, args);
 	}
 
+	// Session transports register the same tools through TodoSyncToolsConfiguration (sync) and
+	// TodoAsyncToolsConfiguration (webflux profile), which pass the request's progress token on
 	@Bean(name = "toolCallbackProvider")
-	public ToolCallbackProvider toolCallbackProvider(TodoTools todoTools) {
-	    return MethodToolCallbackProvider.builder()
+	@ConditionalOnProperty(name = "spring.ai.mcp.server.protocol", havingValue = "STATELESS")
+	public ToolCallbackProvider toolCallbackProvider(TodoTools todoTools, ToolMetrics toolMetrics) {
+	    return toolMetrics.instrument(MethodToolCallbackProvider.builder()
 	            .toolObjects(todoTools)
-	            .build();
+	            .build());
 	}
 }
\ No newline at end of file
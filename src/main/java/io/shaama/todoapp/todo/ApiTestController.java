@@ -1,6 +1,8 @@
 package io.shaama.todoapp.todo;
 
-import lombok.Getter;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -11,8 +13,11 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
+@RequiredArgsConstructor
 public class ApiTestController {
 
+    private final ObjectProvider<PrometheusMeterRegistry> prometheusMeterRegistry;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> getHealth() {
         return ResponseEntity.ok(Map.of(
@@ -28,12 +33,20 @@ public class ApiTestController {
         return ResponseEntity.ok("MCP Todo Server is running!");
     }
 
+    // Prometheus scrape target: todo.tool.*, todo.sampling.* and the JVM, pool and server meters
+    @GetMapping(value = "/metrics", produces = "text/plain;version=0.0.4;charset=utf-8")
+    public ResponseEntity<String> getMetrics() {
+        PrometheusMeterRegistry registry = prometheusMeterRegistry.getIfAvailable();
+        return registry == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(registry.scrape());
+    }
+
     // Add a simple root endpoint for basic connectivity tests
     @GetMapping("/")
     public ResponseEntity<Map<String, String>> getRoot() {
         return ResponseEntity.ok(Map.of(
             "message", "Todo MCP Server API",
             "health", "/api/health",
+            "metrics", "/api/metrics",
             "mcp", "/mcp"
         ));
     }
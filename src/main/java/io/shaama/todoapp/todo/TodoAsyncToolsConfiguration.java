@@ -0,0 +1,77 @@
+package io.shaama.todoapp.todo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.shaama.todoapp.utils.Progress;
+import io.shaama.todoapp.utils.ToolMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exposes {@link TodoTools} to the async MCP server ({@code spring.ai.mcp.server.type=ASYNC},
+ * see the webflux profile). Each tool handler returns a {@link Mono}, and the blocking body
+ * (JDBC, and in makeTodo the sampling round trip) is moved onto a dedicated bounded scheduler
+ * rather than Reactor's shared boundedElastic. The event loop never blocks, and blocking work
+ * has its own cap and queue that show up in thread dumps as {@code todo-blocking}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.ai.mcp.server.type", havingValue = "ASYNC")
+public class TodoAsyncToolsConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler todoBlockingScheduler(
+            @Value("${todo.reactive.blocking.max-threads:64}") int maxThreads,
+            @Value("${todo.reactive.blocking.max-queued-tasks:100000}") int maxQueuedTasks
+    ) {
+        return Schedulers.newBoundedElastic(maxThreads, maxQueuedTasks, "todo-blocking");
+    }
+
+    @Bean
+    public List<McpServerFeatures.AsyncToolSpecification> todoAsyncTools(
+            TodoTools todoTools, ToolMetrics toolMetrics, Scheduler todoBlockingScheduler, ObjectMapper objectMapper) {
+        ToolCallback[] callbacks = MethodToolCallbackProvider.builder()
+                .toolObjects(todoTools)
+                .build()
+                .getToolCallbacks();
+        log.info("Registering {} async todo tools", callbacks.length);
+        return Arrays.stream(callbacks)
+                .map(toolMetrics::instrument)
+                .map(callback -> toAsyncSpecification(callback, todoBlockingScheduler, objectMapper))
+                .toList();
+    }
+
+    static McpServerFeatures.AsyncToolSpecification toAsyncSpecification(
+            ToolCallback callback, Scheduler scheduler, ObjectMapper objectMapper) {
+        var definition = callback.getToolDefinition();
+        var tool = new McpSchema.Tool(definition.name(), definition.description(), definition.inputSchema());
+
+        return McpServerFeatures.AsyncToolSpecification.builder()
+                .tool(tool)
+                .callHandler((exchange, request) -> Mono
+                        .fromCallable(() -> {
+                            // Tools read the exchange from the context; the sync view blocks, which is fine off the event loop
+                            ToolContext toolContext = Progress.toolContext(new McpSyncServerExchange(exchange), request);
+                            String result = callback.call(objectMapper.writeValueAsString(request.arguments()), toolContext);
+                            return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(result)), false);
+                        })
+                        .subscribeOn(scheduler)
+                        .onErrorResume(e -> Mono.just(new McpSchema.CallToolResult(
+                                List.of(new McpSchema.TextContent(String.valueOf(e.getMessage()))), true))))
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package io.shaama.todoapp.todo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.shaama.todoapp.todo.model.Todo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through near cache for todo lookups by id, with size-based eviction and a TTL.
+ * {@link TodoService} evicts entries synchronously on every write and once more after commit.
+ * A value whose load overlapped an eviction is dropped again, so a reader that fetched the row
+ * before a concurrent write committed cannot leave the old row behind until the TTL.
+ * <p>
+ * Todos are mutable entities, so the cache keeps its own copy and hands out a fresh one on
+ * every lookup; what one caller changes never reaches another.
+ */
+@Slf4j
+@Component
+public class TodoCache {
+
+    private final Cache<Long, Todo> cache;
+    // Bumped before every eviction, so a load can tell whether one happened while it ran
+    private final AtomicLong evictions = new AtomicLong();
+
+    public TodoCache(
+            @Value("${todo.cache.enabled:true}") boolean enabled,
+            @Value("${todo.cache.max-size:10000}") long maxSize,
+            @Value("${todo.cache.ttl:5m}") Duration ttl
+    ) {
+        this.cache = enabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build()
+                : null;
+        log.info("Todo near cache {}", enabled ? "enabled (max " + maxSize + ", ttl " + ttl + ")" : "disabled");
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public Optional<Todo> get(Long id, Function<Long, Optional<Todo>> loader) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        long generation = evictions.get();
+        boolean[] loaded = {false};
+        // Misses are not cached, so a todo created later is found on the next lookup
+        Todo cached = cache.get(id, key -> {
+            loaded[0] = true;
+            return loader.apply(key).map(TodoCache::copyOf).orElse(null);
+        });
+        if (cached == null) {
+            return Optional.empty();
+        }
+        if (loaded[0] && evictions.get() != generation) {
+            // The row may have been read before the write that caused the eviction committed
+            cache.asMap().remove(id, cached);
+        }
+        return Optional.of(copyOf(cached));
+    }
+
+    public void evict(Long id) {
+        if (cache != null) {
+            evictions.incrementAndGet();
+            cache.invalidate(id);
+        }
+    }
+
+    public void clear() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public long size() {
+        return cache == null ? 0 : cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+
+    private static Todo copyOf(Todo todo) {
+        return Todo.builder()
+                .id(todo.getId())
+                .title(todo.getTitle())
+                .description(todo.getDescription())
+                .completed(todo.isCompleted())
+                .createdAt(todo.getCreatedAt())
+                .updatedAt(todo.getUpdatedAt())
+                .version(todo.getVersion())
+                .build();
+    }
+}
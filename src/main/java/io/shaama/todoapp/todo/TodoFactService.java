@@ -0,0 +1,163 @@
+package io.shaama.todoapp.todo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoFact;
+import io.shaama.todoapp.utils.McpLogging;
+import io.shaama.todoapp.utils.SamplingBatcher;
+import io.shaama.todoapp.utils.SamplingCache;
+import io.shaama.todoapp.utils.SamplingGuard;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static io.shaama.todoapp.utils.Sampling.createSamplingRequest;
+
+/**
+ * Produces the "interesting fact" that decorates a new todo by sampling the client's LLM.
+ * <p>
+ * In {@code sync} mode (default) makeTodo waits for the fact. In {@code async} mode makeTodo
+ * returns the saved todo immediately, so create latency is just the database write. The fact
+ * is then sampled on a virtual thread and delivered as a {@code notifications/message} on the
+ * {@value #NOTIFICATION_LOGGER} logger. It is also kept for a while and can be read back with
+ * the fetchTodoFact tool.
+ * Async delivery needs a transport that keeps a server-to-client channel open after the tool
+ * result (stdio, sse). Otherwise sampling fails and the fact ends up FAILED, as it does whenever
+ * the sampling guard times out, rejects or skips the request.
+ */
+@Slf4j
+@Component
+public class TodoFactService {
+
+    public enum Mode {SYNC, ASYNC}
+
+    static final String NOTIFICATION_LOGGER = "todo-fact";
+
+    private static final String SYSTEM_PROMPT =
+            "You are a fun and witty assistant that provides interesting facts about everyday items.";
+
+    private final ObjectMapper objectMapper;
+    private final SamplingCache samplingCache;
+    private final SamplingBatcher samplingBatcher;
+    private final McpLogging mcpLogging;
+    private final Mode mode;
+    private final Cache<Long, TodoFact> facts;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TodoFactService(
+            ObjectMapper objectMapper,
+            SamplingCache samplingCache,
+            SamplingBatcher samplingBatcher,
+            McpLogging mcpLogging,
+            @Value("${todo.fact.mode:sync}") Mode mode,
+            @Value("${todo.fact.max-size:10000}") long maxSize,
+            @Value("${todo.fact.ttl:1h}") Duration ttl
+    ) {
+        this.objectMapper = objectMapper;
+        this.samplingCache = samplingCache;
+        this.samplingBatcher = samplingBatcher;
+        this.mcpLogging = mcpLogging;
+        this.mode = mode;
+        this.facts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        log.info("Todo facts are generated {}", mode == Mode.ASYNC ? "asynchronously" : "synchronously");
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    public boolean isAsync() {
+        return mode == Mode.ASYNC;
+    }
+
+    public Optional<TodoFact> getFact(Long todoId) {
+        return Optional.ofNullable(facts.getIfPresent(todoId));
+    }
+
+    /**
+     * Samples the fact on the calling thread and returns it, READY only if a fact was produced.
+     */
+    public TodoFact generate(Todo todo, ToolContext toolContext) {
+        TodoFact fact = factOf(todo,
+                createSamplingRequest(toolContext, SYSTEM_PROMPT, promptFor(todo), samplingCache, samplingBatcher));
+        facts.put(todo.getId(), fact);
+        // Notifications raised while sampling must leave on this call's stream, before the result
+        McpToolUtils.getMcpExchange(toolContext).ifPresent(mcpLogging::flush);
+        return fact;
+    }
+
+    /**
+     * Records the fact as pending and samples it in the background.
+     */
+    public TodoFact.Status generateAsync(Todo todo, ToolContext toolContext) {
+        facts.put(todo.getId(), fact(todo, TodoFact.Status.PENDING, null));
+        executor.execute(() -> {
+            TodoFact result;
+            try {
+                result = factOf(todo,
+                        createSamplingRequest(toolContext, SYSTEM_PROMPT, promptFor(todo), samplingCache, samplingBatcher));
+            } catch (RuntimeException e) {
+                log.warn("Fact generation for todo {} failed: {}", todo.getId(), e.getMessage());
+                result = fact(todo, TodoFact.Status.FAILED, null);
+            }
+            facts.put(todo.getId(), result);
+            notifyClient(toolContext, result);
+        });
+        return TodoFact.Status.PENDING;
+    }
+
+    private void notifyClient(ToolContext toolContext, TodoFact fact) {
+        // The client can always read the fact back with fetchTodoFact
+        McpToolUtils.getMcpExchange(toolContext).ifPresent(exchange -> {
+            try {
+                mcpLogging.log(exchange,
+                        fact.getStatus() == TodoFact.Status.READY ? McpSchema.LoggingLevel.INFO : McpSchema.LoggingLevel.WARNING,
+                        NOTIFICATION_LOGGER,
+                        objectMapper.writeValueAsString(fact));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException("Failed to serialize todo fact", e);
+            }
+        });
+    }
+
+    private static String promptFor(Todo todo) {
+        return "Provide an interesting fact about a todo item with the title: " + todo.getTitle()
+                + " and description: " + todo.getDescription();
+    }
+
+    // Timeouts, failures and skipped samples leave no fact, so they must not look READY
+    private static TodoFact factOf(Todo todo, SamplingGuard.Result sampled) {
+        if (sampled.outcome() != SamplingGuard.Outcome.SUCCESS) {
+            log.debug("No fact for todo {}: sampling {}", todo.getId(), sampled.outcome());
+            return fact(todo, TodoFact.Status.FAILED, null);
+        }
+        return fact(todo, TodoFact.Status.READY, sampled.text());
+    }
+
+    private static TodoFact fact(Todo todo, TodoFact.Status status, String fact) {
+        return TodoFact.builder()
+                .todoId(todo.getId())
+                .status(status)
+                .fact(fact)
+                .build();
+    }
+}
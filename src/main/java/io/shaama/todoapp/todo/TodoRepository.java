@@ -1,9 +1,62 @@
 package io.shaama.todoapp.todo;
 
 import io.shaama.todoapp.todo.model.Todo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface TodoRepository extends JpaRepository<Todo, Long> {
+public interface TodoRepository extends JpaRepository<Todo, Long>, JpaSpecificationExecutor<Todo> {
+
+    int STREAM_FETCH_SIZE = 500;
+
+    // Keyset page on the primary key: seeks straight to the cursor instead of scanning an OFFSET
+    List<Todo> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Backed by an open JDBC cursor; must be consumed inside a transaction and closed by the caller
+    @Query("select t from Todo t order by t.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Todo> streamAllOrderById();
+
+    // Single-statement mutations: no entity is loaded, the affected row count tells whether the id
+    // existed (and, when expectedVersion is given, whether the version still matched)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Todo t
+               set t.title = :title, t.description = :description,
+                   t.completed = :completed, t.updatedAt = :updatedAt,
+                   t.version = coalesce(t.version, 0) + 1
+             where t.id = :id
+               and (:expectedVersion is null or t.version = :expectedVersion)""")
+    int updateFieldsById(@Param("id") Long id,
+                         @Param("title") String title,
+                         @Param("description") String description,
+                         @Param("completed") boolean completed,
+                         @Param("updatedAt") LocalDateTime updatedAt,
+                         @Param("expectedVersion") Long expectedVersion);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            delete from Todo t
+             where t.id = :id
+               and (:expectedVersion is null or t.version = :expectedVersion)""")
+    int deleteTodoById(@Param("id") Long id, @Param("expectedVersion") Long expectedVersion);
+
+    @Query("select t.version from Todo t where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
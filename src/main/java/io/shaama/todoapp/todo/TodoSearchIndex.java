@@ -0,0 +1,184 @@
+package io.shaama.todoapp.todo;
+
+import io.shaama.todoapp.todo.model.Todo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over todo titles and descriptions, ranked with BM25.
+ * A search only touches the posting lists of the query terms, so its cost follows
+ * the number of matching todos rather than the table size.
+ * <p>
+ * The index is rebuilt from the database on startup and kept current by {@link TodoService}.
+ * It only sees writes made by this instance, so with {@code todo.search.index.enabled=false}
+ * it stays empty and {@link TodoService} scores a fresh index for every query instead.
+ */
+@Component
+public class TodoSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int TITLE_BOOST = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private record Hit(long id, double score) {
+    }
+
+    private final boolean enabled;
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Map<String, Integer>> termsById = new HashMap<>();
+    private final Map<Long, Integer> lengthById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    public TodoSearchIndex() {
+        this(true);
+    }
+
+    @Autowired
+    public TodoSearchIndex(@Value("${todo.search.index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void put(Todo todo) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Integer> terms = new HashMap<>();
+        for (int i = 0; i < TITLE_BOOST; i++) {
+            countTerms(todo.getTitle(), terms);
+        }
+        countTerms(todo.getDescription(), terms);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(todo.getId());
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : terms.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(todo.getId(), entry.getValue());
+                length += entry.getValue();
+            }
+            termsById.put(todo.getId(), terms);
+            lengthById.put(todo.getId(), length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsById.clear();
+            lengthById.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the best matching todos, highest score first.
+     */
+    public List<Long> search(String query, int limit) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documents = termsById.size();
+            double averageLength = documents == 0 ? 0 : (double) totalLength / documents;
+            for (String term : queryTerms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documents - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((id, tf) -> {
+                    double norm = tf + K1 * (1 - B + B * lengthById.get(id) / averageLength);
+                    scores.merge(id, idf * tf * (K1 + 1) / norm, Double::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Bounded min-heap keeps top-k selection at O(matches * log k)
+        PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+        scores.forEach((id, score) -> {
+            top.add(new Hit(id, score));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+        List<Long> ids = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ids.add(0, top.poll().id());
+        }
+        return ids;
+    }
+
+    private void removeLocked(Long id) {
+        Map<String, Integer> previous = termsById.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengthById.remove(id);
+    }
+
+    private static void countTerms(String text, Map<String, Integer> terms) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, 1, Integer::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase())) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
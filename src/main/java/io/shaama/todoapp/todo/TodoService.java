@@ -1,47 +1,255 @@
 package io.shaama.todoapp.todo;
 
 import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoFilter;
+import io.shaama.todoapp.todo.model.TodoPage;
+import io.shaama.todoapp.todo.model.TodoSpec;
+import io.shaama.todoapp.todo.store.TodoStore;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TodoService {
 
-    private final TodoRepository todoRepository;
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_BULK_SIZE = 1000;
+    static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int SEARCH_REBUILD_CHUNK_SIZE = 500;
+    private static final String CURSOR_PREFIX = "id:";
+
+    private final TodoStore todoStore;
+    private final TodoSearchIndex todoSearchIndex;
+    private final TodoCache todoCache;
 
     public List<Todo> getAllTodos() {
-        return todoRepository.findAll();
+        return todoStore.findAll();
+    }
+
+    public TodoPage getTodoPage(String cursor, Integer pageSize) {
+        int size = pageSize == null || pageSize <= 0 ? DEFAULT_PAGE_SIZE : Math.min(pageSize, MAX_PAGE_SIZE);
+        long afterId = decodeCursor(cursor);
+
+        // Read one extra row to learn whether another page exists without a count query
+        List<Todo> rows = todoStore.findPageAfter(afterId, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<Todo> items = hasMore ? rows.subList(0, size) : rows;
+
+        return TodoPage.builder()
+                .items(List.copyOf(items))
+                .nextCursor(hasMore ? encodeCursor(items.get(items.size() - 1).getId()) : null)
+                .build();
+    }
+
+    public List<Todo> findTodos(TodoFilter filter) {
+        int limit = filter.getLimit() == null || filter.getLimit() <= 0
+                ? DEFAULT_PAGE_SIZE
+                : Math.min(filter.getLimit(), MAX_PAGE_SIZE);
+        return todoStore.find(filter, limit);
+    }
+
+    /**
+     * Ranked full-text search over title and description; the index yields the ids,
+     * then one lookup loads the rows in rank order. Without the index (other instances write
+     * to the same database) the store matches every query word as a substring instead,
+     * newest first and unranked, reading at most {@code limit} rows.
+     */
+    public List<Todo> searchTodos(String query, Integer limit) {
+        int size = limit == null || limit <= 0 ? DEFAULT_SEARCH_LIMIT : Math.min(limit, MAX_PAGE_SIZE);
+        if (!todoSearchIndex.isEnabled()) {
+            List<String> words = TodoSearchIndex.tokenize(query);
+            return words.isEmpty() ? List.of() : todoStore.find(TodoFilter.builder().words(words).build(), size);
+        }
+        List<Long> ids = todoSearchIndex.search(query, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Todo> byId = todoStore.findAllById(ids).stream()
+                .collect(Collectors.toMap(Todo::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+        if (!todoSearchIndex.isEnabled()) {
+            log.info("Search index disabled, searches match words in the store");
+            return;
+        }
+        todoSearchIndex.clear();
+        long indexed = streamAllTodos(SEARCH_REBUILD_CHUNK_SIZE, chunk -> chunk.forEach(todoSearchIndex::put));
+        log.info("Search index built for {} todos", indexed);
+    }
+
+    /**
+     * Hands every todo to the consumer in chunks without loading the whole table at once.
+     */
+    public long streamAllTodos(int chunkSize, Consumer<List<Todo>> chunkConsumer) {
+        return todoStore.streamAll(chunkSize, chunkConsumer);
     }
 
     public Optional<Todo> getTodoById(Long id) {
-        return todoRepository.findById(id);
+        return todoCache.get(id, todoStore::findById);
     }
 
     public Todo createTodo(Todo todo) {
+        checkTitle(todo.getTitle());
         todo.setCreatedAt(LocalDateTime.now());
         todo.setUpdatedAt(LocalDateTime.now());
-        return todoRepository.save(todo);
+
+        Todo saved = todoStore.insert(todo);
+        onSaved(saved);
+        return saved;
+    }
+
+    public List<Todo> createTodos(List<TodoSpec> specs) {
+        checkBulkSize(specs);
+        LocalDateTime now = LocalDateTime.now();
+        List<Todo> todos = specs.stream().map(spec -> {
+            checkTitle(spec.getTitle());
+            Todo todo = spec.toTodo();
+            todo.setCreatedAt(now);
+            todo.setUpdatedAt(now);
+            return todo;
+        }).toList();
+        List<Todo> saved = todoStore.insertAll(todos);
+        saved.forEach(this::onSaved);
+        return saved;
+    }
+
+    /**
+     * Updates the specs whose id matches an existing todo and inserts the rest as new todos.
+     */
+    public List<Todo> upsertTodos(List<TodoSpec> specs) {
+        checkBulkSize(specs);
+        LocalDateTime now = LocalDateTime.now();
+        List<Todo> todos = specs.stream().map(spec -> {
+            checkTitle(spec.getTitle());
+            Todo todo = spec.toTodo();
+            todo.setId(spec.getId());
+            todo.setCreatedAt(now);
+            todo.setUpdatedAt(now);
+            return todo;
+        }).toList();
+        List<Todo> saved = todoStore.upsertAll(todos);
+        saved.forEach(this::onSaved);
+        return saved;
     }
 
     public Optional<Todo> updateTodo(Long id, Todo todoDetails) {
-        return todoRepository.findById(id).map(todo -> {
-            todo.setTitle(todoDetails.getTitle());
-            todo.setDescription(todoDetails.getDescription());
-            todo.setCompleted(todoDetails.isCompleted());
-            todo.setUpdatedAt(LocalDateTime.now());
-            return todoRepository.save(todo);
-        });
+        return updateTodo(id, todoDetails, null);
+    }
+
+    /**
+     * Applies the update in place without reading the todo first. When expectedVersion is given
+     * and another writer got there first, a {@link TodoVersionConflictException} is thrown.
+     */
+    public Optional<Todo> updateTodo(Long id, Todo todoDetails, Long expectedVersion) {
+        checkTitle(todoDetails.getTitle());
+        Todo changes = Todo.builder()
+                .title(todoDetails.getTitle())
+                .description(todoDetails.getDescription())
+                .completed(todoDetails.isCompleted())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        Optional<Todo> updatedTodo = todoStore.update(id, changes, expectedVersion);
+        updatedTodo.ifPresent(this::onSaved);
+        return updatedTodo;
     }
 
     public boolean deleteTodo(Long id) {
-        return todoRepository.findById(id).map(todo -> {
-            todoRepository.delete(todo);
+        return deleteTodo(id, null);
+    }
+
+    public boolean deleteTodo(Long id, Long expectedVersion) {
+        if (todoStore.delete(id, expectedVersion)) {
+            onDeleted(id);
             return true;
-        }).orElse(false);
+        }
+        return false;
+    }
+
+    // Keeps the search index and the near cache in step with a write, evicting before and after commit
+    private void onSaved(Todo todo) {
+        todoCache.evict(todo.getId());
+        afterCommit(() -> {
+            todoSearchIndex.put(todo);
+            todoCache.evict(todo.getId());
+        });
+    }
+
+    private void onDeleted(Long id) {
+        todoCache.evict(id);
+        afterCommit(() -> {
+            todoSearchIndex.remove(id);
+            todoCache.evict(id);
+        });
+    }
+
+    // Derived read models must never see rows from a transaction that later rolls back
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    // Only the JPA store validates entities, so every write path checks what @NotBlank would have
+    private static void checkTitle(String title) {
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("Title is required");
+        }
+    }
+
+    private static void checkBulkSize(List<TodoSpec> specs) {
+        if (specs == null || specs.isEmpty()) {
+            throw new IllegalArgumentException("At least one todo is required");
+        }
+        if (specs.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " todos can be written in one call");
+        }
     }
 }
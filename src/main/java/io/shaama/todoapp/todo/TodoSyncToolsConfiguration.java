@@ -0,0 +1,62 @@
+package io.shaama.todoapp.todo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.shaama.todoapp.utils.Progress;
+import io.shaama.todoapp.utils.ToolMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exposes {@link TodoTools} to the sync MCP server on the session transports (stdio, sse,
+ * streamable). The tool context is built from the whole tools/call request rather than its
+ * arguments only, so it carries the client's {@code _meta.progressToken} for streaming tools.
+ * The stateless server has no session to notify and takes the tools from the
+ * {@code toolCallbackProvider} bean instead.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnExpression("'${spring.ai.mcp.server.type:SYNC}' == 'SYNC' and '${spring.ai.mcp.server.protocol:SSE}' != 'STATELESS'")
+public class TodoSyncToolsConfiguration {
+
+    @Bean
+    public List<McpServerFeatures.SyncToolSpecification> todoSyncTools(
+            TodoTools todoTools, ToolMetrics toolMetrics, ObjectMapper objectMapper) {
+        ToolCallback[] callbacks = MethodToolCallbackProvider.builder()
+                .toolObjects(todoTools)
+                .build()
+                .getToolCallbacks();
+        log.info("Registering {} sync todo tools", callbacks.length);
+        return Arrays.stream(callbacks)
+                .map(toolMetrics::instrument)
+                .map(callback -> toSyncSpecification(callback, objectMapper))
+                .toList();
+    }
+
+    static McpServerFeatures.SyncToolSpecification toSyncSpecification(ToolCallback callback, ObjectMapper objectMapper) {
+        var definition = callback.getToolDefinition();
+        var tool = new McpSchema.Tool(definition.name(), definition.description(), definition.inputSchema());
+
+        return McpServerFeatures.SyncToolSpecification.builder()
+                .tool(tool)
+                .callHandler((exchange, request) -> {
+                    try {
+                        ToolContext toolContext = Progress.toolContext(exchange, request);
+                        String result = callback.call(objectMapper.writeValueAsString(request.arguments()), toolContext);
+                        return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(result)), false);
+                    } catch (Exception e) {
+                        return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(String.valueOf(e.getMessage()))), true);
+                    }
+                })
+                .build();
+    }
+}
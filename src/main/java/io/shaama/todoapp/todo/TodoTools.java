@@ -1,6 +1,12 @@
 package io.shaama.todoapp.todo;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoFact;
+import io.shaama.todoapp.todo.model.TodoFilter;
+import io.shaama.todoapp.todo.model.TodoPage;
+import io.shaama.todoapp.todo.model.TodoSpec;
 import io.shaama.todoapp.todo.model.TodoToolResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.ai.chat.model.ToolContext;
@@ -8,23 +14,114 @@ import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Service;
 
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
-import static io.shaama.todoapp.utils.Sampling.createSamplingRequest;
+import static io.shaama.todoapp.utils.Progress.sendProgress;
 
 @Service
 @RequiredArgsConstructor
 public class TodoTools {
 
+    private static final int DEFAULT_STREAM_CHUNK_SIZE = 100;
+
     private final TodoService todoService;
+    private final TodoFactService todoFactService;
+    private final ObjectMapper objectMapper;
 
     @Tool(description = "Gets all Todo items")
     public List<Todo> fetchAllTodos(ToolContext toolContext) {
         return todoService.getAllTodos();
     }
 
+    @Tool(description = "Streams all Todo items as progress notifications on the progress token of the request (_meta.progressToken). "
+            + "Each notification message is a JSON array chunk of Todo items; returns the total number of items sent")
+    public long fetchAllTodosStreaming(
+            @ToolParam(description = "Number of items per chunk (default 100)", required = false)
+            Integer chunkSize,
+
+            ToolContext toolContext
+    ) {
+        int size = chunkSize == null || chunkSize <= 0 ? DEFAULT_STREAM_CHUNK_SIZE : chunkSize;
+        AtomicLong sent = new AtomicLong();
+
+        return todoService.streamAllTodos(size, chunk -> {
+            String message;
+            try {
+                message = objectMapper.writeValueAsString(chunk);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException("Failed to serialize todo chunk", e);
+            }
+            // Throwing ends the scan: without a channel for notifications the client would get a count of nothing
+            if (!sendProgress(toolContext, sent.addAndGet(chunk.size()), message)) {
+                throw new IllegalStateException("Streaming needs a session and a progress token in the request's "
+                        + "_meta for progress notifications, use fetchTodosPage instead");
+            }
+        });
+    }
+
+    @Tool(description = "Gets one page of Todo items ordered by ID. Pass the returned nextCursor to get the following page; nextCursor is null on the last page")
+    public TodoPage fetchTodosPage(
+            @ToolParam(description = "Maximum number of items to return (default 50, max 500)", required = false)
+            Integer pageSize,
+
+            @ToolParam(description = "Cursor returned by the previous page, omit for the first page", required = false)
+            String cursor,
+
+            ToolContext toolContext
+    ) {
+        return todoService.getTodoPage(cursor, pageSize);
+    }
+
+    @Tool(description = "Finds Todo items matching optional filters, sorted and limited on the server")
+    public List<Todo> fetchTodos(
+            @ToolParam(description = "Only return completed (true) or open (false) Todos", required = false)
+            Boolean completed,
+
+            @ToolParam(description = "Only Todos updated after this ISO-8601 local date-time, e.g. 2025-01-31T09:00:00", required = false)
+            String updatedAfter,
+
+            @ToolParam(description = "Only Todos updated before this ISO-8601 local date-time", required = false)
+            String updatedBefore,
+
+            @ToolParam(description = "Only Todos created after this ISO-8601 local date-time", required = false)
+            String createdAfter,
+
+            @ToolParam(description = "Sort as field[,asc|desc] with field one of id, title, createdAt, updatedAt (default updatedAt,desc)", required = false)
+            String sort,
+
+            @ToolParam(description = "Maximum number of items to return (default 50, max 500)", required = false)
+            Integer limit,
+
+            ToolContext toolContext
+    ) {
+        return todoService.findTodos(TodoFilter.builder()
+                .completed(completed)
+                .updatedAfter(parseDateTime("updatedAfter", updatedAfter))
+                .updatedBefore(parseDateTime("updatedBefore", updatedBefore))
+                .createdAfter(parseDateTime("createdAfter", createdAfter))
+                .sort(sort)
+                .limit(limit)
+                .build());
+    }
+
+    @Tool(description = "Searches Todo items by words in their title and description, best matches first")
+    public List<Todo> searchTodos(
+            @ToolParam(description = "Words to search for")
+            String query,
+
+            @ToolParam(description = "Maximum number of items to return (default 10, max 500)", required = false)
+            Integer limit,
+
+            ToolContext toolContext
+    ) {
+        return todoService.searchTodos(query, limit);
+    }
+
     @Tool(description = "Gets a Todo item by ID")
     public Optional<Todo> fetchTodoById(
             @ToolParam(description = "id for the Item")
@@ -58,18 +155,52 @@ public class TodoTools {
 
         Todo savedTodo = todoService.createTodo(todo);
 
-        String fact = createSamplingRequest(
-                toolContext,
-                "You are a fun and witty assistant that provides interesting facts about everyday items.",
-                "Provide an interesting fact about a todo item with the title: " + title + " and description: " + description
-        );
+        if (todoFactService.isAsync()) {
+            return TodoToolResponse.builder()
+                    .todo(savedTodo)
+                    .factStatus(todoFactService.generateAsync(savedTodo, toolContext))
+                    .build();
+        }
 
+        TodoFact fact = todoFactService.generate(savedTodo, toolContext);
         return TodoToolResponse.builder()
                 .todo(savedTodo)
-                .fact(fact)
+                .fact(fact.getFact())
+                .factStatus(fact.getStatus())
                 .build();
     }
 
+    @Tool(description = "Gets the interesting fact generated for a Todo item created with makeTodo. "
+            + "Status is PENDING while it is still being generated")
+    public Optional<TodoFact> fetchTodoFact(
+            @ToolParam(description = "id of the Todo item")
+            Long id,
+
+            ToolContext toolContext
+    ) {
+        return todoFactService.getFact(id);
+    }
+
+    @Tool(description = "Creates many Todo items in one call and returns their ids in input order")
+    public List<Long> makeTodos(
+            @ToolParam(description = "Todo items to create; id is ignored")
+            List<TodoSpec> todos,
+
+            ToolContext toolContext
+    ) {
+        return todoService.createTodos(todos).stream().map(Todo::getId).toList();
+    }
+
+    @Tool(description = "Updates the Todo items whose id exists and creates the others, in one call. Returns the ids in input order")
+    public List<Long> upsertTodos(
+            @ToolParam(description = "Todo items to update or create; omit id to create")
+            List<TodoSpec> todos,
+
+            ToolContext toolContext
+    ) {
+        return todoService.upsertTodos(todos).stream().map(Todo::getId).toList();
+    }
+
     @Tool(description = "Updates an existing Todo item")
     public Optional<Todo> changeTodo(
             @ToolParam(description = "id for the Item")
@@ -84,15 +215,16 @@ public class TodoTools {
             @ToolParam(description = "Is the Todo completed?")
             boolean completed,
 
+            @ToolParam(description = "Version the change is based on; the update is rejected if the Todo was changed since", required = false)
+            Long expectedVersion,
+
             ToolContext toolContext
     ) {
-        return todoService.getTodoById(id).map(todo -> {
-            todo.setTitle(title);
-            todo.setDescription(description);
-            todo.setCompleted(completed);
-            todo.setUpdatedAt(LocalDateTime.now());
-            return todoService.createTodo(todo);
-        });
+        return todoService.updateTodo(id, Todo.builder()
+                .title(title)
+                .description(description)
+                .completed(completed)
+                .build(), expectedVersion);
     }
 
     @Tool(description = "Deletes a Todo item by ID")
@@ -100,12 +232,22 @@ public class TodoTools {
             @ToolParam(description = "id for the Item")
             Long id,
 
+            @ToolParam(description = "Version the delete is based on; the delete is rejected if the Todo was changed since", required = false)
+            Long expectedVersion,
+
             ToolContext toolContext
     ) {
-        return todoService.getTodoById(id).map(todo -> {
-            todoService.deleteTodo(id);
-            return true;
+        return todoService.deleteTodo(id, expectedVersion);
+    }
 
-        }).orElse(false);
+    private static LocalDateTime parseDateTime(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be an ISO-8601 local date-time, got: " + value, e);
+        }
     }
 }
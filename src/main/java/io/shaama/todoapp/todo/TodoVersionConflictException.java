@@ -0,0 +1,23 @@
+package io.shaama.todoapp.todo;
+
+import lombok.Getter;
+
+/**
+ * Thrown when an update or delete carries an expectedVersion that no longer matches the stored todo.
+ * The message tells the agent which version to re-read and retry with.
+ */
+@Getter
+public class TodoVersionConflictException extends RuntimeException {
+
+    private final Long id;
+    private final Long expectedVersion;
+    private final Long currentVersion;
+
+    public TodoVersionConflictException(Long id, Long expectedVersion, Long currentVersion) {
+        super("Version conflict for todo " + id + ": expected version " + expectedVersion
+                + " but current version is " + currentVersion + ". Fetch the todo again and retry with the current version.");
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+        this.currentVersion = currentVersion;
+    }
+}
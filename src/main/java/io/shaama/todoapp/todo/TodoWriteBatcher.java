@@ -0,0 +1,162 @@
+package io.shaama.todoapp.todo;
+
+import io.shaama.todoapp.todo.model.Todo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-commit writer for new todos. Concurrent inserts are queued and a single writer
+ * thread persists them together in one transaction, either once the collection window
+ * closes or once the batch is full. Each caller gets its own saved {@link Todo} back.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.store", havingValue = "jpa", matchIfMissing = true)
+public class TodoWriteBatcher {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private record PendingWrite(Todo todo, CompletableFuture<Todo> result) {
+    }
+
+    private final TodoRepository todoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+    private Thread writer;
+
+    public TodoWriteBatcher(
+            TodoRepository todoRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${todo.write.group-commit.enabled:true}") boolean enabled,
+            @Value("${todo.write.group-commit.window-micros:2000}") long windowMicros,
+            @Value("${todo.write.group-commit.max-batch-size:64}") int maxBatchSize
+    ) {
+        this.todoRepository = todoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("todo-group-commit")
+                .daemon()
+                .start(this::drainLoop);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        // Whatever the writer did not get to before the join gave up would otherwise wait forever
+        failQueued();
+    }
+
+    public boolean isEnabled() {
+        return enabled && running;
+    }
+
+    public CompletableFuture<Todo> submit(Todo todo) {
+        CompletableFuture<Todo> result = new CompletableFuture<>();
+        if (!running) {
+            result.completeExceptionally(new IllegalStateException("Group-commit writer is not running"));
+            return result;
+        }
+        PendingWrite write = new PendingWrite(todo, result);
+        queue.add(write);
+        // stop() may have run between the check and the add, after the writer's last look at the queue
+        if (!running && queue.remove(write)) {
+            result.completeExceptionally(new IllegalStateException("Group-commit writer stopped"));
+        }
+        return result;
+    }
+
+    private void drainLoop() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collectWindow(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        failQueued();
+    }
+
+    private void failQueued() {
+        PendingWrite leftover;
+        while ((leftover = queue.poll()) != null) {
+            leftover.result().completeExceptionally(new IllegalStateException("Group-commit writer stopped"));
+        }
+    }
+
+    private void collectWindow(List<PendingWrite> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            // Once the window has closed, still take whatever is already queued
+            PendingWrite next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        try {
+            List<Todo> saved = transactionTemplate.execute(status ->
+                    todoRepository.saveAll(batch.stream().map(PendingWrite::todo).toList()));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            // One bad row must not fail its neighbours: fall back to one transaction per todo
+            log.warn("Group commit of {} todos failed, retrying individually", batch.size(), e);
+            for (PendingWrite write : batch) {
+                try {
+                    write.todo().setId(null);
+                    write.todo().setVersion(null);
+                    write.result().complete(transactionTemplate.execute(status -> todoRepository.save(write.todo())));
+                } catch (RuntimeException single) {
+                    write.result().completeExceptionally(single);
+                }
+            }
+        }
+    }
+}
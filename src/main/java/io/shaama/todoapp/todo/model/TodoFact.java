@@ -0,0 +1,18 @@
+package io.shaama.todoapp.todo.model;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TodoFact {
+
+    public enum Status {PENDING, READY, FAILED}
+
+    private Long todoId;
+    private Status status;
+    private String fact;
+
+}
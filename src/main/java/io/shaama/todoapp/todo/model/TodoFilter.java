@@ -0,0 +1,24 @@
+package io.shaama.todoapp.todo.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TodoFilter {
+
+    private Boolean completed;
+    private LocalDateTime updatedAfter;
+    private LocalDateTime updatedBefore;
+    private LocalDateTime createdAfter;
+    // Lower-case letters and digits only; every word must occur in the title or the description
+    private List<String> words;
+    private String sort;
+    private Integer limit;
+
+}
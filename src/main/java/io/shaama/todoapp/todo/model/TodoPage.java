@@ -0,0 +1,17 @@
+package io.shaama.todoapp.todo.model;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TodoPage {
+
+    private List<Todo> items;
+    private String nextCursor;
+
+}
@@ -0,0 +1,24 @@
+package io.shaama.todoapp.todo.model;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TodoSpec {
+
+    private Long id;
+    private String title;
+    private String description;
+    private boolean completed;
+
+    public Todo toTodo() {
+        return Todo.builder()
+                .title(title)
+                .description(description)
+                .completed(completed)
+                .build();
+    }
+}
@@ -11,5 +11,6 @@ public class TodoToolResponse {
 
     private Todo todo;
     private String fact;
+    private TodoFact.Status factStatus;
 
 }
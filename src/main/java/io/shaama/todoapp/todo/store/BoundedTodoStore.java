@@ -0,0 +1,157 @@
+package io.shaama.todoapp.todo.store;
+
+import io.shaama.todoapp.todo.TodoWriteBatcher;
+import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Admission gate in front of {@link JpaTodoStore}. Each call takes a permit before the store
+ * opens its transaction. With virtual threads there can be thousands of concurrent tool calls.
+ * Without the gate they would all pile into Hikari's connection wait and fail after its timeout.
+ * With it, they queue fairly and cheaply here.
+ * <p>
+ * Calls that already run inside a transaction hold a connection and pass straight through, as
+ * do grouped inserts. Their single writer thread borrows one connection outside the gate, so
+ * while group commit is on, the permits are one fewer than {@code todo.db.max-concurrency}.
+ * Together, the pool never sees more borrowers than it has connections.
+ * <p>
+ * The gate wraps the store in every JPA profile. On platform threads Tomcat's thread pool
+ * already caps concurrency, so it rarely queues anyone there; under {@code virtual} it is what
+ * keeps the pool from being overrun.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "todo.store", havingValue = "jpa", matchIfMissing = true)
+public class BoundedTodoStore implements TodoStore {
+
+    private final JpaTodoStore delegate;
+    private final TodoWriteBatcher todoWriteBatcher;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final long acquireTimeoutNanos;
+
+    public BoundedTodoStore(
+            JpaTodoStore delegate,
+            TodoWriteBatcher todoWriteBatcher,
+            @Value("${todo.db.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency,
+            @Value("${todo.db.acquire-timeout:30s}") Duration acquireTimeout
+    ) {
+        this.delegate = delegate;
+        this.todoWriteBatcher = todoWriteBatcher;
+        // The group-commit writer holds a connection of its own while it flushes
+        int reserved = todoWriteBatcher.isEnabled() ? 1 : 0;
+        this.maxConcurrency = Math.max(1, maxConcurrency - reserved);
+        this.permits = new Semaphore(this.maxConcurrency, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        log.info("Database access limited to {} concurrent store calls{}", this.maxConcurrency,
+                reserved > 0 ? ", one connection left for group commit" : "");
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getInFlight() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public int getQueued() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public List<Todo> findAll() {
+        return gated(delegate::findAll);
+    }
+
+    @Override
+    public Optional<Todo> findById(Long id) {
+        return gated(() -> delegate.findById(id));
+    }
+
+    @Override
+    public List<Todo> findAllById(Collection<Long> ids) {
+        return gated(() -> delegate.findAllById(ids));
+    }
+
+    @Override
+    public List<Todo> findPageAfter(long afterId, int limit) {
+        return gated(() -> delegate.findPageAfter(afterId, limit));
+    }
+
+    @Override
+    public List<Todo> find(TodoFilter filter, int limit) {
+        return gated(() -> delegate.find(filter, limit));
+    }
+
+    // The permit is held for the whole stream, just like the cursor's connection
+    @Override
+    public long streamAll(int chunkSize, Consumer<List<Todo>> chunkConsumer) {
+        return gated(() -> delegate.streamAll(chunkSize, chunkConsumer));
+    }
+
+    @Override
+    public Todo insert(Todo todo) {
+        if (todoWriteBatcher.isEnabled()) {
+            return delegate.insert(todo);
+        }
+        return gated(() -> delegate.insert(todo));
+    }
+
+    @Override
+    public List<Todo> insertAll(List<Todo> todos) {
+        return gated(() -> delegate.insertAll(todos));
+    }
+
+    @Override
+    public List<Todo> upsertAll(List<Todo> todos) {
+        return gated(() -> delegate.upsertAll(todos));
+    }
+
+    @Override
+    public Optional<Todo> update(Long id, Todo changes, Long expectedVersion) {
+        return gated(() -> delegate.update(id, changes, expectedVersion));
+    }
+
+    @Override
+    public boolean delete(Long id, Long expectedVersion) {
+        return gated(() -> delegate.delete(id, expectedVersion));
+    }
+
+    private <T> T gated(Supplier<T> call) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return call.get();
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new CannotGetJdbcConnectionException("Timed out waiting for one of "
+                        + maxConcurrency + " database permits, " + permits.getQueueLength() + " callers queued");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotGetJdbcConnectionException("Interrupted while waiting for a database permit");
+        }
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+}
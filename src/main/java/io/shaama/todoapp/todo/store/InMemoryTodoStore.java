@@ -0,0 +1,300 @@
+package io.shaama.todoapp.todo.store;
+
+import io.shaama.todoapp.todo.TodoVersionConflictException;
+import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * ORM-free store keeping todos as {@link TodoRecord}s in lock-striped {@link LongTodoMap}s.
+ * A lookup by id takes one stripe's read lock and probes a primitive array, so writers on other
+ * stripes never block it. Scans (lists, filters, pages) visit the stripes one after another.
+ * <p>
+ * Selected with {@code todo.store=memory}; contents live only as long as the process.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.store", havingValue = "memory")
+public class InMemoryTodoStore implements TodoStore {
+
+    private static final int STRIPE_BITS = 4;
+
+    private static final class Stripe {
+        final LongTodoMap map = new LongTodoMap();
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    }
+
+    private final Stripe[] stripes = new Stripe[1 << STRIPE_BITS];
+    private final AtomicLong nextId = new AtomicLong();
+
+    public InMemoryTodoStore() {
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public List<Todo> findAll() {
+        List<TodoRecord> records = scan(record -> true);
+        records.sort(Comparator.comparingLong(TodoRecord::id));
+        return toTodos(records);
+    }
+
+    @Override
+    public Optional<Todo> findById(Long id) {
+        if (id == null || id <= 0) {
+            return Optional.empty();
+        }
+        Stripe stripe = stripeOf(id);
+        stripe.lock.readLock().lock();
+        try {
+            return Optional.ofNullable(stripe.map.get(id)).map(TodoRecord::toTodo);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Todo> findAllById(Collection<Long> ids) {
+        List<Todo> todos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            findById(id).ifPresent(todos::add);
+        }
+        return todos;
+    }
+
+    @Override
+    public List<Todo> findPageAfter(long afterId, int limit) {
+        // Bounded max-heap on id keeps only the lowest ids above the cursor
+        PriorityQueue<TodoRecord> lowest = new PriorityQueue<>(
+                Comparator.comparingLong(TodoRecord::id).reversed());
+        forEachRecord(record -> {
+            if (record.id() > afterId) {
+                lowest.add(record);
+                if (lowest.size() > limit) {
+                    lowest.poll();
+                }
+            }
+        });
+        List<TodoRecord> page = new ArrayList<>(lowest);
+        page.sort(Comparator.comparingLong(TodoRecord::id));
+        return toTodos(page);
+    }
+
+    @Override
+    public List<Todo> find(TodoFilter filter, int limit) {
+        List<TodoRecord> matches = scan(matching(filter));
+        matches.sort(comparatorOf(TodoSpecifications.sortOf(filter.getSort())));
+        return toTodos(matches.subList(0, Math.min(limit, matches.size())));
+    }
+
+    @Override
+    public long streamAll(int chunkSize, Consumer<List<Todo>> chunkConsumer) {
+        List<Todo> all = findAll();
+        for (int from = 0; from < all.size(); from += chunkSize) {
+            chunkConsumer.accept(all.subList(from, Math.min(from + chunkSize, all.size())));
+        }
+        return all.size();
+    }
+
+    @Override
+    public Todo insert(Todo todo) {
+        TodoRecord record = TodoRecord.of(allocateId(), todo, 0L);
+        apply(record);
+        return record.toTodo();
+    }
+
+    @Override
+    public List<Todo> insertAll(List<Todo> todos) {
+        return todos.stream().map(this::insert).toList();
+    }
+
+    @Override
+    public List<Todo> upsertAll(List<Todo> todos) {
+        List<Todo> saved = new ArrayList<>(todos.size());
+        for (Todo todo : todos) {
+            Optional<Todo> updated = todo.getId() == null ? Optional.empty() : update(todo.getId(), todo, null);
+            saved.add(updated.orElseGet(() -> insert(todo)));
+        }
+        return saved;
+    }
+
+    @Override
+    public Optional<Todo> update(Long id, Todo changes, Long expectedVersion) {
+        return mutate(id, expectedVersion, (stripe, current) -> {
+            TodoRecord next = current.withChanges(changes);
+            stripe.map.put(id, next);
+            return next.toTodo();
+        });
+    }
+
+    @Override
+    public boolean delete(Long id, Long expectedVersion) {
+        return mutate(id, expectedVersion, (stripe, current) -> stripe.map.remove(id)).isPresent();
+    }
+
+    // Package-private hooks for stores that keep this one as their in-memory state (see JournalTodoStore)
+
+    long allocateId() {
+        return nextId.incrementAndGet();
+    }
+
+    // Highest id handed out so far, including ids of todos deleted since
+    long lastAllocatedId() {
+        return nextId.get();
+    }
+
+    void reserveIdsThrough(long id) {
+        nextId.accumulateAndGet(id, Math::max);
+    }
+
+    TodoRecord recordOf(long id) {
+        Stripe stripe = stripeOf(id);
+        stripe.lock.readLock().lock();
+        try {
+            return stripe.map.get(id);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    void apply(TodoRecord record) {
+        Stripe stripe = stripeOf(record.id());
+        stripe.lock.writeLock().lock();
+        try {
+            stripe.map.put(record.id(), record);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+        nextId.accumulateAndGet(record.id(), Math::max);
+    }
+
+    void applyDelete(long id) {
+        Stripe stripe = stripeOf(id);
+        stripe.lock.writeLock().lock();
+        try {
+            stripe.map.remove(id);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    List<TodoRecord> records() {
+        return scan(record -> true);
+    }
+
+    private interface Mutation<T> {
+        T apply(Stripe stripe, TodoRecord current);
+    }
+
+    private <T> Optional<T> mutate(Long id, Long expectedVersion, Mutation<T> mutation) {
+        if (id == null || id <= 0) {
+            return Optional.empty();
+        }
+        Stripe stripe = stripeOf(id);
+        stripe.lock.writeLock().lock();
+        try {
+            TodoRecord current = stripe.map.get(id);
+            if (current == null) {
+                return Optional.empty();
+            }
+            if (expectedVersion != null && expectedVersion != current.version()) {
+                throw new TodoVersionConflictException(id, expectedVersion, current.version());
+            }
+            return Optional.of(mutation.apply(stripe, current));
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    private Stripe stripeOf(long id) {
+        // Top bits pick the stripe, the map inside probes with the low bits of the same hash
+        return stripes[(int) (LongTodoMap.mix(id) >>> (Long.SIZE - STRIPE_BITS))];
+    }
+
+    private void forEachRecord(Consumer<TodoRecord> action) {
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                stripe.map.forEach(action);
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+    }
+
+    private List<TodoRecord> scan(Predicate<TodoRecord> predicate) {
+        List<TodoRecord> records = new ArrayList<>();
+        forEachRecord(record -> {
+            if (predicate.test(record)) {
+                records.add(record);
+            }
+        });
+        return records;
+    }
+
+    private static List<Todo> toTodos(List<TodoRecord> records) {
+        return records.stream().map(TodoRecord::toTodo).toList();
+    }
+
+    // Same semantics as TodoSpecifications: missing timestamps never satisfy a range
+    private static Predicate<TodoRecord> matching(TodoFilter filter) {
+        Predicate<TodoRecord> predicate = record -> true;
+        if (filter.getCompleted() != null) {
+            boolean completed = filter.getCompleted();
+            predicate = predicate.and(record -> record.completed() == completed);
+        }
+        if (filter.getUpdatedAfter() != null) {
+            long after = TodoRecord.toNanos(filter.getUpdatedAfter());
+            predicate = predicate.and(record -> record.updatedAt() != TodoRecord.NO_TIME && record.updatedAt() > after);
+        }
+        if (filter.getUpdatedBefore() != null) {
+            long before = TodoRecord.toNanos(filter.getUpdatedBefore());
+            predicate = predicate.and(record -> record.updatedAt() != TodoRecord.NO_TIME && record.updatedAt() < before);
+        }
+        if (filter.getCreatedAfter() != null) {
+            long after = TodoRecord.toNanos(filter.getCreatedAfter());
+            predicate = predicate.and(record -> record.createdAt() != TodoRecord.NO_TIME && record.createdAt() > after);
+        }
+        if (filter.getWords() != null) {
+            for (String word : filter.getWords()) {
+                predicate = predicate.and(record -> contains(record.title(), word) || contains(record.description(), word));
+            }
+        }
+        return predicate;
+    }
+
+    private static boolean contains(String text, String word) {
+        return text != null && text.toLowerCase().contains(word);
+    }
+
+    private static Comparator<TodoRecord> comparatorOf(Sort sort) {
+        Comparator<TodoRecord> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<TodoRecord> next = switch (order.getProperty()) {
+                case "id" -> Comparator.comparingLong(TodoRecord::id);
+                case "title" -> Comparator.comparing(TodoRecord::title, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "createdAt" -> Comparator.comparingLong(TodoRecord::createdAt);
+                case "updatedAt" -> Comparator.comparingLong(TodoRecord::updatedAt);
+                default -> throw new IllegalArgumentException("Cannot sort by '" + order.getProperty() + "'");
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator == null ? Comparator.comparingLong(TodoRecord::id) : comparator;
+    }
+}
@@ -0,0 +1,130 @@
+package io.shaama.todoapp.todo.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped log of framed entries: {@code [int length][payload][int crc32c]}.
+ * The mapping grows in fixed steps and the unused tail is zero, so a zero length marks the end.
+ * On open, entries are validated up to the first short or corrupt frame (a torn last write),
+ * and appending resumes from there.
+ * <p>
+ * Appends are serialized by the caller; {@link #unforced()} may be forced from another thread.
+ */
+final class JournalFile implements Closeable {
+
+    static final int FRAME_OVERHEAD = 2 * Integer.BYTES;
+
+    record Region(MappedByteBuffer buffer, int from, int to) {
+        void force() {
+            if (to > from) {
+                buffer.force(from, to - from);
+            }
+        }
+    }
+
+    private final FileChannel channel;
+    private final int growBy;
+    private MappedByteBuffer buffer;
+    private int position;
+    private int forcedTo;
+
+    private JournalFile(FileChannel channel, int growBy) {
+        this.channel = channel;
+        this.growBy = growBy;
+    }
+
+    /**
+     * Opens (or creates) the journal and replays every valid entry to {@code replay}.
+     */
+    static JournalFile open(Path path, int growBy, Consumer<ByteBuffer> replay) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        JournalFile journal = new JournalFile(channel, growBy);
+        journal.map((int) Math.max(channel.size(), growBy));
+        journal.position = forEachEntry(journal.buffer, 0, journal.buffer.capacity(), replay);
+        journal.forcedTo = journal.position;
+        if (journal.position + Integer.BYTES <= journal.buffer.capacity()) {
+            // Clear a torn frame header so the next recovery stops here until it is overwritten
+            journal.buffer.putInt(journal.position, 0);
+        }
+        return journal;
+    }
+
+    /**
+     * Walks the framed entries in {@code [from, limit)} and returns the offset after the last valid one.
+     */
+    static int forEachEntry(ByteBuffer source, int from, int limit, Consumer<ByteBuffer> action) {
+        int offset = from;
+        CRC32C crc = new CRC32C();
+        while (offset + FRAME_OVERHEAD <= limit) {
+            int length = source.getInt(offset);
+            if (length <= 0 || offset + FRAME_OVERHEAD + length > limit) {
+                break;
+            }
+            ByteBuffer payload = source.slice(offset + Integer.BYTES, length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != source.getInt(offset + Integer.BYTES + length)) {
+                break;
+            }
+            action.accept(payload);
+            offset += FRAME_OVERHEAD + length;
+        }
+        return offset;
+    }
+
+    static ByteBuffer frame(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return ByteBuffer.allocate(FRAME_OVERHEAD + payload.length)
+                .putInt(payload.length)
+                .put(payload)
+                .putInt((int) crc.getValue())
+                .flip();
+    }
+
+    /**
+     * Appends one entry and returns the journal size after it.
+     */
+    synchronized int append(byte[] payload) throws IOException {
+        int size = FRAME_OVERHEAD + payload.length;
+        if ((long) position + size + Integer.BYTES > buffer.capacity()) {
+            map((int) Math.min(Integer.MAX_VALUE, (long) buffer.capacity() + Math.max(growBy, size + Integer.BYTES)));
+        }
+        buffer.put(position, frame(payload), 0, size);
+        position += size;
+        return position;
+    }
+
+    /**
+     * Hands out the range written since the previous call, to be forced outside the append lock.
+     */
+    synchronized Region unforced() {
+        Region region = new Region(buffer, forcedTo, position);
+        forcedTo = position;
+        return region;
+    }
+
+    synchronized int size() {
+        return position;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        unforced().force();
+        channel.close();
+    }
+
+    private void map(int size) throws IOException {
+        // Mapping beyond the end of the file extends it; the old mapping stays valid until collected
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+}
@@ -0,0 +1,532 @@
+package io.shaama.todoapp.todo.store;
+
+import io.shaama.todoapp.todo.TodoVersionConflictException;
+import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Durable store that appends every mutation to a memory-mapped journal before applying it to an
+ * {@link InMemoryTodoStore}, which then serves all reads.
+ * <p>
+ * Files live in {@code todo.journal.dir} and are numbered by generation: {@code snapshot-N.bin}
+ * holds the full state at the start of {@code journal-N.log}. A snapshot rotates to a new
+ * generation, is written to a temp file and renamed once forced, and only then are older files
+ * deleted, so a crash at any point still leaves a snapshot plus every journal needed after it.
+ * Startup maps the newest snapshot and replays the journals from its generation on.
+ * <p>
+ * {@code todo.journal.fsync} controls durability: {@code always} forces every write before
+ * returning, {@code group} lets concurrent writers share one force and wait for it, and
+ * {@code interval} forces in the background every {@code todo.journal.fsync-interval}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.store", havingValue = "journal")
+public class JournalTodoStore implements TodoStore {
+
+    public enum FsyncPolicy {ALWAYS, GROUP, INTERVAL}
+
+    // "TodoSnp2": the header carries magic, generation, id high-water mark and record count
+    private static final long SNAPSHOT_MAGIC = 0x546f646f536e7032L;
+    private static final int SNAPSHOT_HEADER = Long.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+    private static final Pattern FILE_NAME = Pattern.compile("(journal|snapshot)-(\\d+)\\.(log|bin)");
+
+    private final InMemoryTodoStore state = new InMemoryTodoStore();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Locks rather than monitors: writers may be virtual threads, which must not pin while waiting
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Condition flushed = flushLock.newCondition();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    // Set when a size-triggered snapshot is queued, so a crossed threshold queues exactly one
+    private final AtomicBoolean snapshotPending = new AtomicBoolean();
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final Duration fsyncInterval;
+    private final Duration snapshotInterval;
+    private final int journalGrowBy;
+    private final long snapshotAfterBytes;
+
+    private JournalFile journal;
+    private long generation;
+    private volatile long appendedSequence;
+    private volatile long durableSequence;
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+    private Thread groupFlusher;
+
+    public JournalTodoStore(
+            @Value("${todo.journal.dir:${todo.data-dir:./data}/journal}") Path directory,
+            @Value("${todo.journal.fsync:group}") FsyncPolicy fsyncPolicy,
+            @Value("${todo.journal.fsync-interval:100ms}") Duration fsyncInterval,
+            @Value("${todo.journal.snapshot-interval:5m}") Duration snapshotInterval,
+            @Value("${todo.journal.grow-by:16MB}") DataSize journalGrowBy,
+            @Value("${todo.journal.snapshot-after:256MB}") DataSize snapshotAfter
+    ) {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncInterval = fsyncInterval;
+        this.snapshotInterval = snapshotInterval;
+        this.journalGrowBy = (int) journalGrowBy.toBytes();
+        // A single mapping is addressed by int offsets, so a generation must stay below 2 GB
+        this.snapshotAfterBytes = Math.min(snapshotAfter.toBytes(), Integer.MAX_VALUE / 2);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        long startNanos = System.nanoTime();
+        Files.createDirectories(directory);
+
+        OptionalLong snapshot = newestGeneration("snapshot");
+        long snapshotGeneration = snapshot.orElse(0L);
+        if (snapshot.isPresent()) {
+            loadSnapshot(snapshotGeneration);
+        }
+
+        long replayed = 0;
+        List<Long> journals = generations("journal").stream().filter(gen -> gen >= snapshotGeneration).toList();
+        generation = journals.isEmpty() ? snapshotGeneration : journals.get(journals.size() - 1);
+        for (long gen : journals) {
+            JournalFile file = JournalFile.open(journalPath(gen), journalGrowBy, this::replay);
+            replayed += file.size();
+            if (gen == generation) {
+                journal = file;
+            } else {
+                file.close();
+            }
+        }
+        if (journal == null) {
+            journal = JournalFile.open(journalPath(generation), journalGrowBy, this::replay);
+        }
+
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("todo-journal").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly,
+                snapshotInterval.toMillis(), snapshotInterval.toMillis(), TimeUnit.MILLISECONDS);
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            scheduler.scheduleWithFixedDelay(this::forceQuietly,
+                    fsyncInterval.toMillis(), fsyncInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (fsyncPolicy == FsyncPolicy.GROUP) {
+            groupFlusher = Thread.ofPlatform().name("todo-journal-flush").daemon().start(this::groupFlushLoop);
+        }
+
+        log.info("Journal store opened in {} ms: {} todos, snapshot generation {}, {} journal bytes replayed, fsync {}",
+                (System.nanoTime() - startNanos) / 1_000_000, state.records().size(),
+                snapshotGeneration, replayed, fsyncPolicy);
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        running = false;
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        snapshot();
+        signalFlush();
+        if (groupFlusher != null) {
+            groupFlusher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        writeLock.lock();
+        try {
+            journal.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Todo> findAll() {
+        return state.findAll();
+    }
+
+    @Override
+    public Optional<Todo> findById(Long id) {
+        return state.findById(id);
+    }
+
+    @Override
+    public List<Todo> findAllById(Collection<Long> ids) {
+        return state.findAllById(ids);
+    }
+
+    @Override
+    public List<Todo> findPageAfter(long afterId, int limit) {
+        return state.findPageAfter(afterId, limit);
+    }
+
+    @Override
+    public List<Todo> find(TodoFilter filter, int limit) {
+        return state.find(filter, limit);
+    }
+
+    @Override
+    public long streamAll(int chunkSize, Consumer<List<Todo>> chunkConsumer) {
+        return state.streamAll(chunkSize, chunkConsumer);
+    }
+
+    @Override
+    public Todo insert(Todo todo) {
+        return insertAll(List.of(todo)).get(0);
+    }
+
+    @Override
+    public List<Todo> insertAll(List<Todo> todos) {
+        List<Todo> saved = new ArrayList<>(todos.size());
+        long sequence;
+        writeLock.lock();
+        try {
+            sequence = appendedSequence;
+            for (Todo todo : todos) {
+                TodoRecord record = TodoRecord.of(state.allocateId(), todo, 0L);
+                sequence = append(TodoRecordCodec.put(record));
+                state.apply(record);
+                saved.add(record.toTodo());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(sequence);
+        return saved;
+    }
+
+    @Override
+    public List<Todo> upsertAll(List<Todo> todos) {
+        List<Todo> saved = new ArrayList<>(todos.size());
+        long sequence;
+        writeLock.lock();
+        try {
+            sequence = appendedSequence;
+            for (Todo todo : todos) {
+                TodoRecord current = todo.getId() == null ? null : state.recordOf(todo.getId());
+                TodoRecord next = current == null
+                        ? TodoRecord.of(state.allocateId(), todo, 0L)
+                        : current.withChanges(todo);
+                sequence = append(TodoRecordCodec.put(next));
+                state.apply(next);
+                saved.add(next.toTodo());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(sequence);
+        return saved;
+    }
+
+    @Override
+    public Optional<Todo> update(Long id, Todo changes, Long expectedVersion) {
+        TodoRecord next;
+        long sequence;
+        writeLock.lock();
+        try {
+            TodoRecord current = current(id, expectedVersion);
+            if (current == null) {
+                return Optional.empty();
+            }
+            next = current.withChanges(changes);
+            sequence = append(TodoRecordCodec.put(next));
+            state.apply(next);
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(sequence);
+        return Optional.of(next.toTodo());
+    }
+
+    @Override
+    public boolean delete(Long id, Long expectedVersion) {
+        long sequence;
+        writeLock.lock();
+        try {
+            if (current(id, expectedVersion) == null) {
+                return false;
+            }
+            sequence = append(TodoRecordCodec.delete(id));
+            state.applyDelete(id);
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(sequence);
+        return true;
+    }
+
+    /**
+     * Writes a snapshot of the current state and starts a new journal generation.
+     * Skipped when nothing was journaled since the previous snapshot.
+     */
+    public void snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            List<TodoRecord> records;
+            long lastId;
+            long snapshotGeneration;
+            writeLock.lock();
+            try {
+                if (journal.size() == 0) {
+                    return;
+                }
+                // Records are immutable, so copying the references is enough for a consistent view
+                records = state.records();
+                lastId = state.lastAllocatedId();
+                journal.close();
+                markDurable(appendedSequence);
+                snapshotGeneration = ++generation;
+                journal = JournalFile.open(journalPath(snapshotGeneration), journalGrowBy, entry -> { });
+            } finally {
+                writeLock.unlock();
+            }
+
+            long startNanos = System.nanoTime();
+            writeSnapshot(snapshotGeneration, lastId, records);
+            deleteGenerationsBefore(snapshotGeneration);
+            log.info("Snapshot generation {} with {} todos written in {} ms",
+                    snapshotGeneration, records.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private TodoRecord current(Long id, Long expectedVersion) {
+        if (id == null || id <= 0) {
+            return null;
+        }
+        TodoRecord current = state.recordOf(id);
+        if (current != null && expectedVersion != null && expectedVersion != current.version()) {
+            throw new TodoVersionConflictException(id, expectedVersion, current.version());
+        }
+        return current;
+    }
+
+    // Called with the write lock held
+    private long append(byte[] entry) {
+        try {
+            int size = journal.append(entry);
+            long sequence = ++appendedSequence;
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                journal.unforced().force();
+                markDurable(sequence);
+            }
+            if (size >= snapshotAfterBytes && running && snapshotPending.compareAndSet(false, true)) {
+                scheduler.execute(() -> {
+                    try {
+                        snapshotQuietly();
+                    } finally {
+                        snapshotPending.set(false);
+                    }
+                });
+            }
+            return sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to todo journal", e);
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        if (fsyncPolicy != FsyncPolicy.GROUP) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushed.signalAll();
+            while (durableSequence < sequence) {
+                if (!running) {
+                    throw new IllegalStateException("Journal store is closed");
+                }
+                flushed.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for journal fsync", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // One force covers every entry appended while the previous force was running
+    private void groupFlushLoop() {
+        while (running) {
+            try {
+                flushLock.lock();
+                try {
+                    while (running && appendedSequence <= durableSequence) {
+                        flushed.await();
+                    }
+                } finally {
+                    flushLock.unlock();
+                }
+                forceQuietly();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void forceQuietly() {
+        long target;
+        JournalFile.Region region;
+        writeLock.lock();
+        try {
+            target = appendedSequence;
+            region = journal.unforced();
+        } finally {
+            writeLock.unlock();
+        }
+        region.force();
+        markDurable(target);
+    }
+
+    private void markDurable(long sequence) {
+        flushLock.lock();
+        try {
+            if (sequence > durableSequence) {
+                durableSequence = sequence;
+            }
+            flushed.signalAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void signalFlush() {
+        flushLock.lock();
+        try {
+            flushed.signalAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Todo journal snapshot failed, journal keeps growing until the next attempt", e);
+        }
+    }
+
+    private void replay(ByteBuffer entry) {
+        TodoRecordCodec.decode(entry, new TodoRecordCodec.Visitor() {
+            @Override
+            public void put(TodoRecord record) {
+                state.apply(record);
+            }
+
+            @Override
+            public void delete(long id) {
+                state.applyDelete(id);
+            }
+        });
+    }
+
+    // The high-water mark keeps ids of deleted todos from being handed out again after a restart
+    private void writeSnapshot(long snapshotGeneration, long lastId, List<TodoRecord> records) throws IOException {
+        Path target = snapshotPath(snapshotGeneration);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, ByteBuffer.allocate(SNAPSHOT_HEADER)
+                    .putLong(SNAPSHOT_MAGIC)
+                    .putLong(snapshotGeneration)
+                    .putLong(lastId)
+                    .putInt(records.size())
+                    .flip());
+            for (TodoRecord record : records) {
+                writeFully(channel, JournalFile.frame(TodoRecordCodec.put(record)));
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void loadSnapshot(long snapshotGeneration) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotPath(snapshotGeneration), StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.capacity() < SNAPSHOT_HEADER || mapped.getLong(0) != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a todo snapshot: " + snapshotPath(snapshotGeneration));
+            }
+            state.reserveIdsThrough(mapped.getLong(2 * Long.BYTES));
+            int expected = mapped.getInt(3 * Long.BYTES);
+            int[] loaded = {0};
+            JournalFile.forEachEntry(mapped, SNAPSHOT_HEADER, mapped.capacity(), entry -> {
+                replay(entry);
+                loaded[0]++;
+            });
+            if (loaded[0] != expected) {
+                throw new IOException("Snapshot " + snapshotGeneration + " is truncated: "
+                        + loaded[0] + " of " + expected + " todos");
+            }
+        }
+    }
+
+    private void deleteGenerationsBefore(long keepFrom) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches() && Long.parseLong(matcher.group(2)) < keepFrom) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private OptionalLong newestGeneration(String kind) throws IOException {
+        List<Long> generations = generations(kind);
+        return generations.isEmpty() ? OptionalLong.empty() : OptionalLong.of(generations.get(generations.size() - 1));
+    }
+
+    private List<Long> generations(String kind) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> FILE_NAME.matcher(file.getFileName().toString()))
+                    .filter(matcher -> matcher.matches() && matcher.group(1).equals(kind))
+                    .map(matcher -> Long.parseLong(matcher.group(2)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path journalPath(long gen) {
+        return directory.resolve(String.format("journal-%019d.log", gen));
+    }
+
+    private Path snapshotPath(long gen) {
+        return directory.resolve(String.format("snapshot-%019d.bin", gen));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package io.shaama.todoapp.todo.store;
+
+import io.shaama.todoapp.todo.TodoRepository;
+import io.shaama.todoapp.todo.TodoVersionConflictException;
+import io.shaama.todoapp.todo.TodoWriteBatcher;
+import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoFilter;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnProperty(name = "todo.store", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaTodoStore implements TodoStore {
+
+    private static final long GROUP_COMMIT_TIMEOUT_SECONDS = 30;
+
+    private final TodoRepository todoRepository;
+    private final EntityManager entityManager;
+    private final TodoWriteBatcher todoWriteBatcher;
+
+    @Override
+    public List<Todo> findAll() {
+        return todoRepository.findAll();
+    }
+
+    @Override
+    public Optional<Todo> findById(Long id) {
+        return todoRepository.findById(id);
+    }
+
+    @Override
+    public List<Todo> findAllById(Collection<Long> ids) {
+        return todoRepository.findAllById(ids);
+    }
+
+    @Override
+    public List<Todo> findPageAfter(long afterId, int limit) {
+        return todoRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
+    @Override
+    public List<Todo> find(TodoFilter filter, int limit) {
+        return todoRepository.findBy(TodoSpecifications.matching(filter), query -> query
+                .sortBy(TodoSpecifications.sortOf(filter.getSort()))
+                .limit(limit)
+                .all());
+    }
+
+    /**
+     * Reads every todo through a JDBC cursor. Rows are detached as they are read,
+     * so at most one chunk is held on the heap.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long streamAll(int chunkSize, Consumer<List<Todo>> chunkConsumer) {
+        long count = 0;
+        List<Todo> chunk = new ArrayList<>(chunkSize);
+        try (Stream<Todo> todos = todoRepository.streamAllOrderById()) {
+            Iterator<Todo> iterator = todos.iterator();
+            while (iterator.hasNext()) {
+                Todo todo = iterator.next();
+                entityManager.detach(todo);
+                chunk.add(todo);
+                if (chunk.size() == chunkSize) {
+                    chunkConsumer.accept(chunk);
+                    count += chunk.size();
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunkConsumer.accept(chunk);
+            count += chunk.size();
+        }
+        return count;
+    }
+
+    @Override
+    public Todo insert(Todo todo) {
+        // Callers that already hold a transaction expect the insert to be part of it
+        if (!todoWriteBatcher.isEnabled() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return todoRepository.save(todo);
+        }
+        try {
+            return todoWriteBatcher.submit(todo).orTimeout(GROUP_COMMIT_TIMEOUT_SECONDS, TimeUnit.SECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof TimeoutException) {
+                // The batch may still commit later; the caller only learns that it did not in time
+                throw new IllegalStateException("Group commit did not finish within "
+                        + GROUP_COMMIT_TIMEOUT_SECONDS + "s", e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<Todo> insertAll(List<Todo> todos) {
+        return todoRepository.saveAll(todos);
+    }
+
+    /**
+     * Existing rows are loaded with a single IN query and flushed as batched updates.
+     */
+    @Override
+    @Transactional
+    public List<Todo> upsertAll(List<Todo> todos) {
+        List<Long> ids = todos.stream().map(Todo::getId).filter(Objects::nonNull).toList();
+        Map<Long, Todo> existing = todoRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Todo::getId, Function.identity()));
+
+        List<Todo> merged = todos.stream().map(todo -> {
+            Todo current = todo.getId() == null ? null : existing.get(todo.getId());
+            if (current == null) {
+                todo.setId(null);
+                todo.setVersion(null);
+                return todo;
+            }
+            current.setTitle(todo.getTitle());
+            current.setDescription(todo.getDescription());
+            current.setCompleted(todo.isCompleted());
+            current.setUpdatedAt(todo.getUpdatedAt());
+            return current;
+        }).toList();
+        return todoRepository.saveAll(merged);
+    }
+
+    /**
+     * Applies the update with one UPDATE statement; a zero row count means the id does not exist,
+     * or, when expectedVersion is given, that another writer got there first.
+     * The row is only read back afterwards so the caller gets the stored timestamps.
+     */
+    @Override
+    @Transactional
+    public Optional<Todo> update(Long id, Todo changes, Long expectedVersion) {
+        int updated = todoRepository.updateFieldsById(id,
+                changes.getTitle(),
+                changes.getDescription(),
+                changes.isCompleted(),
+                changes.getUpdatedAt(),
+                expectedVersion);
+        if (updated == 0) {
+            checkVersionConflict(id, expectedVersion);
+            return Optional.empty();
+        }
+        return todoRepository.findById(id);
+    }
+
+    @Override
+    @Transactional
+    public boolean delete(Long id, Long expectedVersion) {
+        if (todoRepository.deleteTodoById(id, expectedVersion) > 0) {
+            return true;
+        }
+        checkVersionConflict(id, expectedVersion);
+        return false;
+    }
+
+    // Only runs on the zero-row path, so the happy path stays a single statement
+    private void checkVersionConflict(Long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return;
+        }
+        todoRepository.findVersionById(id).ifPresent(currentVersion -> {
+            throw new TodoVersionConflictException(id, expectedVersion, currentVersion);
+        });
+    }
+}
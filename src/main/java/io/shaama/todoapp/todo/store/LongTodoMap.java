@@ -0,0 +1,136 @@
+package io.shaama.todoapp.todo.store;
+
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash map from a primitive {@code long} id to a {@link TodoRecord}, using linear
+ * probing and backward-shift deletion so no tombstones build up. Ids are always positive, so
+ * {@code 0} marks an empty slot and keys are never boxed.
+ * <p>
+ * Not thread-safe; {@link InMemoryTodoStore} guards each instance with its stripe lock.
+ */
+final class LongTodoMap {
+
+    private static final long EMPTY = 0L;
+    private static final int MIN_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private TodoRecord[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    LongTodoMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    TodoRecord get(long key) {
+        int slot = indexOf(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    TodoRecord put(long key, TodoRecord value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Todo id must be positive: " + key);
+        }
+        int slot = indexOf(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                TodoRecord previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+
+    TodoRecord remove(long key) {
+        int slot = indexOf(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+        TodoRecord removed = values[slot];
+
+        // Shift later entries of the probe run back into the hole so lookups never stop early
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int ideal = indexOf(keys[next]);
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+        size--;
+        return removed;
+    }
+
+    void forEach(Consumer<TodoRecord> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                action.accept(values[i]);
+            }
+        }
+    }
+
+    // Murmur3 finalizer: sequential ids would otherwise cluster in adjacent slots
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private int indexOf(long key) {
+        return (int) mix(key) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new TodoRecord[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        TodoRecord[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = indexOf(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
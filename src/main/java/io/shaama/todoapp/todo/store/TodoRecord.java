@@ -0,0 +1,61 @@
+package io.shaama.todoapp.todo.store;
+
+import io.shaama.todoapp.todo.model.Todo;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Immutable, compact form of a {@link Todo} for the non-ORM stores: timestamps are held as
+ * epoch nanoseconds in primitive longs instead of {@link LocalDateTime} objects.
+ */
+record TodoRecord(
+        long id,
+        String title,
+        String description,
+        boolean completed,
+        long createdAt,
+        long updatedAt,
+        long version
+) {
+
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    static TodoRecord of(long id, Todo todo, long version) {
+        return new TodoRecord(id, todo.getTitle(), todo.getDescription(), todo.isCompleted(),
+                toNanos(todo.getCreatedAt()), toNanos(todo.getUpdatedAt()), version);
+    }
+
+    TodoRecord withChanges(Todo changes) {
+        return new TodoRecord(id, changes.getTitle(), changes.getDescription(), changes.isCompleted(),
+                createdAt, toNanos(changes.getUpdatedAt()), version + 1);
+    }
+
+    Todo toTodo() {
+        return Todo.builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .completed(completed)
+                .createdAt(toDateTime(createdAt))
+                .updatedAt(toDateTime(updatedAt))
+                .version(version)
+                .build();
+    }
+
+    // LocalDateTime has no zone; UTC is only used as a fixed, lossless encoding
+    static long toNanos(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    static LocalDateTime toDateTime(long nanos) {
+        if (nanos == NO_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
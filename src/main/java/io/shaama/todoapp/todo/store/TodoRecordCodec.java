@@ -0,0 +1,88 @@
+package io.shaama.todoapp.todo.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary encoding of journal and snapshot entries. An entry is either a PUT carrying the full
+ * {@link TodoRecord} (inserts and updates alike) or a DELETE carrying only the id.
+ */
+final class TodoRecordCodec {
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+
+    private static final int PUT_FIXED_SIZE = 1 + Long.BYTES + 1 + 3 * Long.BYTES + 2 * Integer.BYTES;
+
+    private TodoRecordCodec() {
+    }
+
+    interface Visitor {
+        void put(TodoRecord record);
+
+        void delete(long id);
+    }
+
+    static byte[] put(TodoRecord record) {
+        byte[] title = bytes(record.title());
+        byte[] description = bytes(record.description());
+        ByteBuffer buffer = ByteBuffer.allocate(PUT_FIXED_SIZE + length(title) + length(description));
+        buffer.put(PUT)
+                .putLong(record.id())
+                .put((byte) (record.completed() ? 1 : 0))
+                .putLong(record.createdAt())
+                .putLong(record.updatedAt())
+                .putLong(record.version());
+        putString(buffer, title);
+        putString(buffer, description);
+        return buffer.array();
+    }
+
+    static byte[] delete(long id) {
+        return ByteBuffer.allocate(1 + Long.BYTES).put(DELETE).putLong(id).array();
+    }
+
+    static void decode(ByteBuffer entry, Visitor visitor) {
+        byte type = entry.get();
+        long id = entry.getLong();
+        switch (type) {
+            case PUT -> {
+                boolean completed = entry.get() != 0;
+                long createdAt = entry.getLong();
+                long updatedAt = entry.getLong();
+                long version = entry.getLong();
+                String title = getString(entry);
+                String description = getString(entry);
+                visitor.put(new TodoRecord(id, title, description, completed, createdAt, updatedAt, version));
+            }
+            case DELETE -> visitor.delete(id);
+            default -> throw new IllegalStateException("Unknown journal entry type " + type);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(value.length).put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
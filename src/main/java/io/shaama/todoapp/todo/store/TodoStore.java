@@ -0,0 +1,59 @@
+package io.shaama.todoapp.todo.store;
+
+import io.shaama.todoapp.todo.TodoVersionConflictException;
+import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoFilter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Storage engine behind {@link io.shaama.todoapp.todo.TodoService}. The engine is chosen with the
+ * {@code todo.store} property: {@code jpa} (default, Hibernate on H2), {@code memory} or
+ * {@code journal} (in-memory, made durable by {@link JournalTodoStore}).
+ * <p>
+ * The service owns validation, timestamps and the derived read models; a store only persists.
+ */
+public interface TodoStore {
+
+    List<Todo> findAll();
+
+    Optional<Todo> findById(Long id);
+
+    List<Todo> findAllById(Collection<Long> ids);
+
+    /**
+     * Returns up to {@code limit} todos with an id greater than {@code afterId}, ascending by id.
+     */
+    List<Todo> findPageAfter(long afterId, int limit);
+
+    List<Todo> find(TodoFilter filter, int limit);
+
+    /**
+     * Hands every todo to the consumer in id order, in chunks of at most {@code chunkSize}.
+     */
+    long streamAll(int chunkSize, Consumer<List<Todo>> chunkConsumer);
+
+    Todo insert(Todo todo);
+
+    List<Todo> insertAll(List<Todo> todos);
+
+    /**
+     * Updates the todos whose id exists (keeping their createdAt) and inserts the others with a new id.
+     */
+    List<Todo> upsertAll(List<Todo> todos);
+
+    /**
+     * Applies title, description, completed and updatedAt from {@code changes}.
+     *
+     * @throws TodoVersionConflictException if {@code expectedVersion} is given and no longer matches
+     */
+    Optional<Todo> update(Long id, Todo changes, Long expectedVersion);
+
+    /**
+     * @throws TodoVersionConflictException if {@code expectedVersion} is given and no longer matches
+     */
+    boolean delete(Long id, Long expectedVersion);
+}
@@ -0,0 +1,172 @@
+package io.shaama.todoapp.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous MCP log notifications. Messages are queued per exchange and sent by one virtual
+ * thread per exchange, so the tool call does not wait for each write. While a send is in flight,
+ * identical queued messages are merged into one with a repeat count, and the queue is bounded by
+ * {@code todo.mcp.logging.max-pending}. The level a client chose with {@code logging/setLevel} is
+ * applied by the MCP server's exchange when the notification is sent, on every transport.
+ * <p>
+ * Queues follow the exchange rather than the session: on Streamable HTTP a notification travels
+ * on the response stream of the call that produced it, so a tool {@link #flush flushes} its
+ * exchange before returning, while that stream is still open.
+ */
+@Slf4j
+@Component
+public class McpLogging {
+
+    private record Message(McpSchema.LoggingLevel level, String logger, String data) {
+    }
+
+    private static final class ExchangeQueue {
+        final McpSyncServerExchange exchange;
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition idle = lock.newCondition();
+        final ArrayDeque<Message> pending = new ArrayDeque<>();
+        boolean draining;
+
+        ExchangeQueue(McpSyncServerExchange exchange) {
+            this.exchange = exchange;
+        }
+    }
+
+    private final int maxPending;
+    private final Cache<McpSyncServerExchange, ExchangeQueue> queues;
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+
+    public McpLogging(@Value("${todo.mcp.logging.max-pending:100}") int maxPending) {
+        this.maxPending = Math.max(1, maxPending);
+        // Weak keys compare by identity and let a finished call's queue go with its exchange
+        this.queues = Caffeine.newBuilder().weakKeys().expireAfterAccess(Duration.ofHours(1)).build();
+    }
+
+    @PreDestroy
+    void stop() {
+        sender.shutdown();
+    }
+
+    /**
+     * Queues a log notification on the exchange.
+     */
+    public void log(McpSyncServerExchange exchange, McpSchema.LoggingLevel level, String logger, String data) {
+        Message message = new Message(level, logger, data);
+        ExchangeQueue queue = queues.get(exchange, ExchangeQueue::new);
+        queue.lock.lock();
+        try {
+            if (queue.pending.size() >= maxPending) {
+                queue.pending.pollFirst();
+                dropped.increment();
+            }
+            queue.pending.addLast(message);
+            if (queue.draining) {
+                return;
+            }
+            queue.draining = true;
+        } finally {
+            queue.lock.unlock();
+        }
+        sender.execute(() -> drain(queue));
+    }
+
+    /**
+     * Sends whatever is still queued for the exchange before returning. Drains on the calling
+     * thread, or waits for the sender that is already draining.
+     */
+    public void flush(McpSyncServerExchange exchange) {
+        ExchangeQueue queue = queues.getIfPresent(exchange);
+        if (queue == null) {
+            return;
+        }
+        queue.lock.lock();
+        try {
+            while (queue.draining) {
+                queue.idle.awaitUninterruptibly();
+            }
+            if (queue.pending.isEmpty()) {
+                return;
+            }
+            queue.draining = true;
+        } finally {
+            queue.lock.unlock();
+        }
+        drain(queue);
+    }
+
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public long sentCount() {
+        return sent.sum();
+    }
+
+    private void drain(ExchangeQueue queue) {
+        while (true) {
+            List<Message> batch;
+            queue.lock.lock();
+            try {
+                if (queue.pending.isEmpty()) {
+                    queue.draining = false;
+                    queue.idle.signalAll();
+                    return;
+                }
+                batch = new ArrayList<>(queue.pending);
+                queue.pending.clear();
+            } finally {
+                queue.lock.unlock();
+            }
+            sendCoalesced(queue.exchange, batch);
+        }
+    }
+
+    private void sendCoalesced(McpSyncServerExchange exchange, List<Message> batch) {
+        int i = 0;
+        while (i < batch.size()) {
+            Message message = batch.get(i);
+            int repeats = 1;
+            while (i + repeats < batch.size() && batch.get(i + repeats).equals(message)) {
+                repeats++;
+            }
+            coalesced.add(repeats - 1);
+            i += repeats;
+            try {
+                exchange.loggingNotification(McpSchema.LoggingMessageNotification.builder()
+                        .level(message.level())
+                        .logger(message.logger())
+                        .data(repeats == 1 ? message.data() : message.data() + " (x" + repeats + ")")
+                        .build());
+                sent.increment();
+            } catch (RuntimeException e) {
+                // The session may be gone; its notifications are only informational
+                dropped.increment();
+                log.debug("Dropped log notification for session {}: {}", exchange.sessionId(), e.getMessage());
+            }
+        }
+    }
+}
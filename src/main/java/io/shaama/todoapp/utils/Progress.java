@@ -0,0 +1,56 @@
+package io.shaama.todoapp.utils;
+
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.util.Assert;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@UtilityClass
+public class Progress {
+
+    /**
+     * Tool context key of the progress token the client sent in the request's {@code _meta}
+     */
+    public static final String PROGRESS_TOKEN_KEY = "progressToken";
+
+    /**
+     * The tool context for one tools/call: the exchange, plus the request's
+     * {@code _meta.progressToken} when the client asked for progress.
+     */
+    public static ToolContext toolContext(McpSyncServerExchange exchange, McpSchema.CallToolRequest request) {
+        Map<String, Object> context = new HashMap<>();
+        context.put(McpToolUtils.TOOL_CONTEXT_MCP_EXCHANGE_KEY, exchange);
+        Object progressToken = request.meta() == null ? null : request.meta().get(PROGRESS_TOKEN_KEY);
+        if (progressToken != null) {
+            context.put(PROGRESS_TOKEN_KEY, progressToken.toString());
+        }
+        return new ToolContext(context);
+    }
+
+    /**
+     * Sends a progress notification on the call's progress token. Returns false when the
+     * tool is not running inside an MCP exchange or the client sent no progress token,
+     * so callers can stop producing chunks.
+     */
+    public static boolean sendProgress(ToolContext ctx, double progress, String message) {
+        Assert.notNull(ctx, "ToolContext must not be null");
+
+        var mcpExchange = McpToolUtils.getMcpExchange(ctx);
+        Object progressToken = ctx.getContext().get(PROGRESS_TOKEN_KEY);
+        if (mcpExchange.isEmpty() || progressToken == null) {
+            log.debug("No MCP exchange or progress token available, dropping progress {}", progress);
+            return false;
+        }
+
+        mcpExchange.get().progressNotification(
+                new McpSchema.ProgressNotification(progressToken.toString(), progress, null, message));
+        return true;
+    }
+}
@@ -1,5 +1,7 @@
 package io.shaama.todoapp.utils;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import io.modelcontextprotocol.server.McpSyncServerExchange;
 import io.modelcontextprotocol.spec.McpSchema;
 import lombok.experimental.UtilityClass;
@@ -8,44 +10,70 @@ import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.mcp.McpToolUtils;
 import org.springframework.util.Assert;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 
 @Slf4j
 @UtilityClass
 public class Sampling {
 
-    public static String createSamplingRequest(ToolContext ctx, String systemPrompt, String content) {
-        // Validate input parameters
+    // Registered on the global registry, which Spring Boot binds to the application's registry
+    private static final String REQUEST_TIMER = "todo.sampling.requests";
+
+    /**
+     * Samples the client's model, answering repeated prompts from the cache, sending only one
+     * request for concurrent identical ones, and merging requests arriving together on a session
+     * into one round trip. The round trip runs under the {@link SamplingGuard}'s deadline,
+     * concurrency limits and circuit breaker. The result's text is empty unless the outcome is
+     * {@link SamplingGuard.Outcome#SUCCESS}, which a cache hit also reports. A client that cannot
+     * sample at all is reported as {@link SamplingGuard.Outcome#REJECTED}.
+     */
+    public static SamplingGuard.Result createSamplingRequest(ToolContext ctx, String systemPrompt, String content,
+                                               SamplingCache cache, SamplingBatcher batcher) {
         Assert.notNull(ctx, "ToolContext must not be null");
         Assert.notNull(systemPrompt, "System prompt must not be null");
         Assert.notNull(content, "Content must not be null");
+        Assert.notNull(cache, "SamplingCache must not be null");
+        Assert.notNull(batcher, "SamplingBatcher must not be null");
 
-        String output = "";
+        long start = System.nanoTime();
         var mcpExchange = McpToolUtils.getMcpExchange(ctx);
-
-        log.info("Creating Sampling Request");
-        if (mcpExchange.isPresent()) {
-            McpSyncServerExchange exchange = mcpExchange.get();
-            logSamplingStart(exchange);
-            if (isSamplingCapabilityAvailable(exchange)) {
-                output = performSampling(exchange, systemPrompt, content);
+        boolean supported = mcpExchange.isPresent() && isSamplingCapabilityAvailable(mcpExchange.get());
+        // Stays unset when the cache answers without a round trip of this caller
+        SamplingGuard.Outcome[] outcome = {null};
+        String output = cache.get(systemPrompt, content, () -> {
+            if (!supported) {
+                return "";
             }
+            log.info("Creating Sampling Request");
+            SamplingGuard.Result result = batcher.attempt(mcpExchange.get(), systemPrompt, content);
+            outcome[0] = result.outcome();
+            return result.text();
+        });
+        record(start, !supported ? "unsupported"
+                : outcome[0] == null ? "cached"
+                : outcome[0].name().toLowerCase(Locale.ROOT));
+        if (!supported) {
+            return new SamplingGuard.Result("", SamplingGuard.Outcome.REJECTED);
         }
-        return output;
+        // Only successful samples are cached, so an answer without a round trip is a success
+        return new SamplingGuard.Result(output, outcome[0] == null ? SamplingGuard.Outcome.SUCCESS : outcome[0]);
     }
 
-    private static void logSamplingStart(McpSyncServerExchange exchange) {
-        exchange.loggingNotification(McpSchema.LoggingMessageNotification.builder()
-                .level(McpSchema.LoggingLevel.INFO)
-                .data("Start sampling")
-                .build());
+    private static void record(long startNanos, String outcome) {
+        Timer.builder(REQUEST_TIMER)
+                .description("Sampling requests from tool calls, including cache hits")
+                .tag("outcome", outcome)
+                .register(Metrics.globalRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - startNanos));
     }
 
     private static boolean isSamplingCapabilityAvailable(McpSyncServerExchange exchange) {
         return exchange.getClientCapabilities().sampling() != null;
     }
 
-    private static String performSampling(McpSyncServerExchange exchange, String systemPrompt, String content) {
+    static String performSampling(McpSyncServerExchange exchange, String systemPrompt, String content) {
         var request = McpSchema.CreateMessageRequest.builder()
                 .systemPrompt(systemPrompt)
                 .messages(List.of(
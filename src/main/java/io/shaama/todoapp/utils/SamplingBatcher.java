@@ -0,0 +1,220 @@
+package io.shaama.todoapp.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Merges sampling requests that arrive close together on the same MCP session into a single
+ * createMessage. Requests that share a session and system prompt are collected for
+ * {@code todo.sampling.batch.window}, or until {@code todo.sampling.batch.max-size} is reached.
+ * They are then sent as one numbered list, and the model is asked for a JSON array of answers
+ * in the same order. Each answer is handed back to its own waiting caller.
+ * <p>
+ * A request that finds no other request of its session in flight is sent right away, so a lone
+ * caller never waits for the window. A single pending request is sent as it is. If the batched
+ * reply cannot be parsed into exactly one answer per request, every caller falls back to its
+ * own request; a batch that timed out or was skipped is not retried. All calls, batched or not,
+ * go through the {@link SamplingGuard}, and no caller waits longer than the window plus the
+ * guard's deadline.
+ */
+@Slf4j
+@Component
+public class SamplingBatcher {
+
+    private static final String BATCH_INSTRUCTIONS = """
+
+            You will receive several numbered requests. Answer each one independently.
+            Reply with only a JSON array of strings, one answer per request, in the same order.""";
+
+    // A null result means the batched reply was unusable and the caller samples on its own
+    private record Pending(String content, CompletableFuture<SamplingGuard.Result> result) {
+    }
+
+    private record Batch(McpSyncServerExchange exchange, String systemPrompt, List<Pending> items) {
+    }
+
+    private final SamplingGuard samplingGuard;
+    private final McpLogging mcpLogging;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final ConcurrentHashMap<String, Batch> open = new ConcurrentHashMap<>();
+    // Requests per batch key that are waiting or being sampled right now
+    private final ConcurrentHashMap<String, Integer> active = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("sampling-batch-timer").daemon().factory());
+    private final ExecutorService flusher = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SamplingBatcher(
+            SamplingGuard samplingGuard,
+            McpLogging mcpLogging,
+            ObjectMapper objectMapper,
+            @Value("${todo.sampling.batch.enabled:true}") boolean enabled,
+            @Value("${todo.sampling.batch.window:50ms}") Duration window,
+            @Value("${todo.sampling.batch.max-size:20}") int maxBatchSize
+    ) {
+        this.samplingGuard = samplingGuard;
+        this.mcpLogging = mcpLogging;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    @PreDestroy
+    void stop() {
+        timer.shutdownNow();
+        // Batches whose timer was cancelled would never be flushed; their callers get the skipped answer
+        for (String key : open.keySet()) {
+            Batch batch = open.remove(key);
+            if (batch != null) {
+                batch.items().forEach(item -> item.result().complete(
+                        new SamplingGuard.Result("", SamplingGuard.Outcome.REJECTED)));
+            }
+        }
+        flusher.shutdown();
+    }
+
+    /**
+     * Samples {@code content}, possibly together with other requests of the same session,
+     * and blocks until this request's answer is known. Returns an empty string when sampling was skipped.
+     */
+    public String sample(McpSyncServerExchange exchange, String systemPrompt, String content) {
+        return attempt(exchange, systemPrompt, content).text();
+    }
+
+    /**
+     * Same as {@link #sample}, with the guard's outcome of the round trip that produced the answer
+     */
+    public SamplingGuard.Result attempt(McpSyncServerExchange exchange, String systemPrompt, String content) {
+        mcpLogging.log(exchange, McpSchema.LoggingLevel.INFO, "sampling", "Start sampling");
+        if (!enabled || maxBatchSize == 1) {
+            return sampleOne(exchange, systemPrompt, content);
+        }
+        String key = exchange.sessionId() + '\0' + systemPrompt;
+        try {
+            if (active.merge(key, 1, Integer::sum) == 1) {
+                // Nothing to merge with, so waiting for the window would only add latency
+                return sampleOne(exchange, systemPrompt, content);
+            }
+            return sampleBatched(key, exchange, systemPrompt, content);
+        } finally {
+            active.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    private SamplingGuard.Result sampleBatched(String key, McpSyncServerExchange exchange, String systemPrompt, String content) {
+        Pending pending = new Pending(content, new CompletableFuture<>());
+        open.compute(key, (k, batch) -> {
+            if (batch == null) {
+                batch = new Batch(exchange, systemPrompt, new ArrayList<>());
+                Batch scheduled = batch;
+                timer.schedule(() -> {
+                    // Whoever removes the batch flushes it, so a batch that filled up first is not sent twice
+                    if (open.remove(k, scheduled)) {
+                        flusher.execute(() -> flush(scheduled));
+                    }
+                }, windowNanos, TimeUnit.NANOSECONDS);
+            }
+            batch.items().add(pending);
+            if (batch.items().size() >= maxBatchSize) {
+                Batch full = batch;
+                flusher.execute(() -> flush(full));
+                return null;
+            }
+            return batch;
+        });
+
+        SamplingGuard.Result answer;
+        try {
+            // The window, the round trip under the guard's deadline, and one more window for the flush to start
+            answer = pending.result()
+                    .orTimeout(2 * windowNanos + samplingGuard.getTimeout().toNanos(), TimeUnit.NANOSECONDS)
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                // A retry would start a second deadline, so the caller goes without
+                log.warn("Batched sampling did not answer within the guard's deadline");
+                return new SamplingGuard.Result("", SamplingGuard.Outcome.TIMEOUT);
+            }
+            throw e;
+        }
+        // Only an unusable batched reply leaves the answer unset; timeouts and skips come back empty
+        return answer != null ? answer : sampleOne(exchange, systemPrompt, content);
+    }
+
+    private void flush(Batch batch) {
+        List<Pending> items = batch.items();
+        try {
+            if (items.size() == 1) {
+                items.get(0).result().complete(sampleOne(batch.exchange(), batch.systemPrompt(), items.get(0).content()));
+                return;
+            }
+            SamplingGuard.Result reply = sampleOne(batch.exchange(), batch.systemPrompt() + BATCH_INSTRUCTIONS, numbered(items));
+            if (reply.outcome() != SamplingGuard.Outcome.SUCCESS) {
+                // Skipped or timed out under the guard: individual retries would fare no better
+                items.forEach(item -> item.result().complete(reply));
+                return;
+            }
+            List<String> answers = parseAnswers(reply.text(), items.size());
+            log.debug("Sampled {} requests in one round trip{}", items.size(), answers == null ? ", reply unusable" : "");
+            for (int i = 0; i < items.size(); i++) {
+                items.get(i).result().complete(answers == null
+                        ? null
+                        : new SamplingGuard.Result(answers.get(i), SamplingGuard.Outcome.SUCCESS));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Batched sampling failed, falling back to single requests: {}", e.getMessage());
+            items.forEach(item -> item.result().complete(null));
+        }
+    }
+
+    private SamplingGuard.Result sampleOne(McpSyncServerExchange exchange, String systemPrompt, String content) {
+        return samplingGuard.attempt(exchange.sessionId(), () -> Sampling.performSampling(exchange, systemPrompt, content));
+    }
+
+    private static String numbered(List<Pending> items) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < items.size(); i++) {
+            content.append(i + 1).append(". ").append(items.get(i).content()).append('\n');
+        }
+        return content.toString();
+    }
+
+    // Models often wrap JSON in prose or code fences, so only the outermost array is read
+    List<String> parseAnswers(String reply, int expected) {
+        int start = reply.indexOf('[');
+        int end = reply.lastIndexOf(']');
+        if (start < 0 || end <= start) {
+            return null;
+        }
+        try {
+            List<String> answers = objectMapper.readValue(reply.substring(start, end + 1), new TypeReference<List<String>>() {
+            });
+            return answers.size() == expected ? answers : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package io.shaama.todoapp.utils;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded cache of sampling results, keyed by a SHA-256 of the system prompt plus the
+ * normalized content (Unicode NFKC, lower case, collapsed whitespace), so recurring todos such as
+ * "Daily standup" only go to the client's model once per TTL.
+ * <p>
+ * Concurrent identical requests are coalesced: the first caller samples and the others wait for
+ * its result. Failed and empty results (a client without sampling) are never cached, and a
+ * waiter handed one falls back to sampling on its own.
+ */
+@Slf4j
+@Component
+public class SamplingCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final AsyncCache<String, String> cache;
+    private final LongAdder coalesced = new LongAdder();
+
+    public SamplingCache(
+            @Value("${todo.sampling.cache.enabled:true}") boolean enabled,
+            @Value("${todo.sampling.cache.max-size:1000}") long maxSize,
+            @Value("${todo.sampling.cache.ttl:1h}") Duration ttl
+    ) {
+        this.cache = enabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .buildAsync()
+                : null;
+        log.info("Sampling cache {}", enabled ? "enabled (max " + maxSize + ", ttl " + ttl + ")" : "disabled");
+    }
+
+    public String get(String systemPrompt, String content, Supplier<String> sampler) {
+        if (cache == null) {
+            return sampler.get();
+        }
+        String key = keyOf(systemPrompt, content);
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> cached = cache.get(key, (k, executor) -> mine);
+
+        if (cached != mine) {
+            if (!cached.isDone()) {
+                coalesced.increment();
+            }
+            try {
+                String result = cached.join();
+                if (result != null && !result.isEmpty()) {
+                    return result;
+                }
+            } catch (CompletionException e) {
+                log.debug("Coalesced sampling request failed, sampling again: {}", e.getMessage());
+            }
+            return sampler.get();
+        }
+
+        try {
+            String result = sampler.get();
+            mine.complete(result);
+            if (result == null || result.isEmpty()) {
+                cache.synchronous().invalidate(key);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            // Caffeine drops exceptionally completed futures, so the next caller samples again
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void clear() {
+        if (cache != null) {
+            cache.synchronous().invalidateAll();
+        }
+    }
+
+    public long size() {
+        return cache == null ? 0 : cache.synchronous().estimatedSize();
+    }
+
+    /**
+     * Hits include coalesced requests, which waited on an in-flight sample instead of a stored one.
+     */
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.synchronous().stats();
+    }
+
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    static String keyOf(String systemPrompt, String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(systemPrompt.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalize(content).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static String normalize(String content) {
+        String normalized = Normalizer.normalize(content, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+}
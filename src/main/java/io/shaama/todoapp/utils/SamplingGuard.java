@@ -0,0 +1,260 @@
+package io.shaama.todoapp.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Protects tool calls from slow or broken client models. Every sampling call gets a deadline
+ * ({@code todo.sampling.timeout}) and needs a permit from both the global and the per-session
+ * limit. A circuit breaker stops sampling for {@code todo.sampling.breaker.open-duration} after
+ * {@code todo.sampling.breaker.failure-threshold} consecutive failures or timeouts, then lets one
+ * trial call through. Whenever a call is skipped or fails, the guard returns an empty result, and
+ * makeTodo just returns the todo without a fact.
+ * <p>
+ * Breaker state and outcome counts are published as {@code todo.sampling.*} meters.
+ */
+@Slf4j
+@Component
+public class SamplingGuard implements MeterBinder {
+
+    public enum BreakerState {CLOSED, HALF_OPEN, OPEN}
+
+    public enum Outcome {SUCCESS, FAILURE, TIMEOUT, REJECTED, SHORT_CIRCUITED}
+
+    /**
+     * The sampled text, empty unless the outcome is {@link Outcome#SUCCESS}
+     */
+    public record Result(String text, Outcome outcome) {
+    }
+
+    private final Duration timeout;
+    private final int maxConcurrency;
+    private final int maxConcurrencyPerSession;
+    private final int failureThreshold;
+    private final Duration openDuration;
+
+    private final Semaphore globalPermits;
+    private final Cache<String, Semaphore> sessionPermits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder[] outcomes = new LongAdder[Outcome.values().length];
+
+    private final ReentrantLock breakerLock = new ReentrantLock();
+    private BreakerState state = BreakerState.CLOSED;
+    private int consecutiveFailures;
+    private long openUntilNanos;
+    private boolean trialInFlight;
+
+    public SamplingGuard(
+            @Value("${todo.sampling.timeout:10s}") Duration timeout,
+            @Value("${todo.sampling.max-concurrency:64}") int maxConcurrency,
+            @Value("${todo.sampling.max-concurrency-per-session:4}") int maxConcurrencyPerSession,
+            @Value("${todo.sampling.breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${todo.sampling.breaker.open-duration:30s}") Duration openDuration
+    ) {
+        this.timeout = timeout;
+        this.maxConcurrency = maxConcurrency;
+        this.maxConcurrencyPerSession = maxConcurrencyPerSession;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+        this.globalPermits = new Semaphore(maxConcurrency);
+        this.sessionPermits = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .build();
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = new LongAdder();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs {@code sampling} within the limits, returning an empty string when it was skipped,
+     * failed or missed its deadline.
+     */
+    public String call(String sessionId, Supplier<String> sampling) {
+        return attempt(sessionId, sampling).text();
+    }
+
+    /**
+     * Same as {@link #call}, but also tells why the text is empty
+     */
+    public Result attempt(String sessionId, Supplier<String> sampling) {
+        if (!allowRequest()) {
+            return skipped(Outcome.SHORT_CIRCUITED);
+        }
+        Semaphore sessionLimit = sessionPermits.get(sessionId == null ? "" : sessionId,
+                id -> new Semaphore(maxConcurrencyPerSession));
+        if (!sessionLimit.tryAcquire()) {
+            releaseTrial();
+            return skipped(Outcome.REJECTED);
+        }
+        try {
+            if (!globalPermits.tryAcquire()) {
+                releaseTrial();
+                return skipped(Outcome.REJECTED);
+            }
+            try {
+                return callWithDeadline(sampling);
+            } finally {
+                globalPermits.release();
+            }
+        } finally {
+            sessionLimit.release();
+        }
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public BreakerState getBreakerState() {
+        breakerLock.lock();
+        try {
+            return state;
+        } finally {
+            breakerLock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        return maxConcurrency - globalPermits.availablePermits();
+    }
+
+    public long count(Outcome outcome) {
+        return outcomes[outcome.ordinal()].sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.sampling.breaker.state", this, guard -> guard.getBreakerState().ordinal())
+                .description("Sampling circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .register(registry);
+        Gauge.builder("todo.sampling.in.flight", this, SamplingGuard::getInFlight)
+                .description("Sampling calls currently waiting on a client model")
+                .register(registry);
+        for (Outcome outcome : Outcome.values()) {
+            FunctionCounter.builder("todo.sampling.calls", outcomes[outcome.ordinal()], LongAdder::sum)
+                    .description("Sampling calls by outcome")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(registry);
+        }
+    }
+
+    private Result callWithDeadline(Supplier<String> sampling) {
+        Future<String> future = executor.submit(sampling::get);
+        try {
+            String result = future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            onSuccess();
+            record(Outcome.SUCCESS);
+            return new Result(result, Outcome.SUCCESS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Sampling did not answer within {}", timeout);
+            onFailure();
+            return skipped(Outcome.TIMEOUT);
+        } catch (ExecutionException e) {
+            log.warn("Sampling failed: {}", e.getCause() == null ? e.getMessage() : e.getCause().getMessage());
+            onFailure();
+            return skipped(Outcome.FAILURE);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            releaseTrial();
+            // Not counted: the caller gave up, the model did not fail
+            return new Result("", Outcome.FAILURE);
+        }
+    }
+
+    private Result skipped(Outcome outcome) {
+        record(outcome);
+        return new Result("", outcome);
+    }
+
+    private boolean allowRequest() {
+        breakerLock.lock();
+        try {
+            if (state == BreakerState.OPEN && System.nanoTime() - openUntilNanos >= 0) {
+                state = BreakerState.HALF_OPEN;
+            }
+            if (state == BreakerState.HALF_OPEN) {
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+            }
+            return state == BreakerState.CLOSED;
+        } finally {
+            breakerLock.unlock();
+        }
+    }
+
+    private void onSuccess() {
+        breakerLock.lock();
+        try {
+            if (state != BreakerState.CLOSED) {
+                log.info("Sampling circuit breaker closed");
+            }
+            state = BreakerState.CLOSED;
+            consecutiveFailures = 0;
+            trialInFlight = false;
+        } finally {
+            breakerLock.unlock();
+        }
+    }
+
+    private void onFailure() {
+        breakerLock.lock();
+        try {
+            consecutiveFailures++;
+            trialInFlight = false;
+            if (state == BreakerState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                if (state != BreakerState.OPEN) {
+                    log.warn("Sampling circuit breaker opened for {} after {} consecutive failures",
+                            openDuration, consecutiveFailures);
+                }
+                state = BreakerState.OPEN;
+                openUntilNanos = System.nanoTime() + openDuration.toNanos();
+            }
+        } finally {
+            breakerLock.unlock();
+        }
+    }
+
+    // A half-open trial that never reached the model must not block the next one
+    private void releaseTrial() {
+        breakerLock.lock();
+        try {
+            trialInFlight = false;
+        } finally {
+            breakerLock.unlock();
+        }
+    }
+
+    private void record(Outcome outcome) {
+        outcomes[outcome.ordinal()].increment();
+    }
+}
@@ -0,0 +1,121 @@
+package io.shaama.todoapp.utils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Meters every MCP tool call. Each meter is tagged with the tool and with the transport the server
+ * was configured for:
+ * <ul>
+ *     <li>{@code todo.tool.calls}: a timer with outcome and exception tags, published as a percentile histogram</li>
+ *     <li>{@code todo.tool.in.flight}: calls currently running</li>
+ *     <li>{@code todo.tool.jdbc.statements}: JDBC statements per call, counted by {@link JdbcStatementCounter}</li>
+ * </ul>
+ */
+@Component
+public class ToolMetrics {
+
+    private final MeterRegistry registry;
+    private final String transport;
+
+    public ToolMetrics(
+            MeterRegistry registry,
+            @Value("${spring.ai.mcp.server.stdio:false}") boolean stdio,
+            @Value("${spring.ai.mcp.server.protocol:SSE}") String protocol
+    ) {
+        this.registry = registry;
+        this.transport = stdio ? "stdio" : protocol.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public ToolCallbackProvider instrument(ToolCallbackProvider provider) {
+        return ToolCallbackProvider.from(Arrays.stream(provider.getToolCallbacks()).map(this::instrument).toList());
+    }
+
+    public ToolCallback instrument(ToolCallback callback) {
+        return new MeteredToolCallback(callback);
+    }
+
+    public String getTransport() {
+        return transport;
+    }
+
+    private final class MeteredToolCallback implements ToolCallback {
+
+        private final ToolCallback delegate;
+        private final String tool;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final DistributionSummary statements;
+
+        MeteredToolCallback(ToolCallback delegate) {
+            this.delegate = delegate;
+            this.tool = delegate.getToolDefinition().name();
+            Gauge.builder("todo.tool.in.flight", inFlight, AtomicInteger::get)
+                    .description("Tool calls currently running")
+                    .tags("tool", tool, "transport", transport)
+                    .register(registry);
+            this.statements = DistributionSummary.builder("todo.tool.jdbc.statements")
+                    .description("JDBC statements created by one tool call")
+                    .tags("tool", tool, "transport", transport)
+                    .register(registry);
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return delegate.getToolDefinition();
+        }
+
+        @Override
+        public ToolMetadata getToolMetadata() {
+            return delegate.getToolMetadata();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return record(() -> delegate.call(toolInput));
+        }
+
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            return record(() -> delegate.call(toolInput, toolContext));
+        }
+
+        private String record(Supplier<String> call) {
+            long statementsBefore = JdbcStatementCounter.current();
+            Timer.Sample sample = Timer.start(registry);
+            inFlight.incrementAndGet();
+            String exception = "none";
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                // The method callback wraps what the tool threw
+                Throwable cause = e instanceof ToolExecutionException && e.getCause() != null ? e.getCause() : e;
+                exception = cause.getClass().getSimpleName();
+                throw e;
+            } finally {
+                inFlight.decrementAndGet();
+                statements.record(JdbcStatementCounter.current() - statementsBefore);
+                sample.stop(Timer.builder("todo.tool.calls")
+                        .description("MCP tool call latency")
+                        .tags("tool", tool, "transport", transport,
+                                "outcome", "none".equals(exception) ? "success" : "error", "exception", exception)
+                        .publishPercentileHistogram()
+                        .register(registry));
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+-- Schema for the persistent profile. Idempotent, so restarts reopen the existing
+-- database instead of rebuilding it. Mirrors io.shaama.todoapp.todo.model.Todo.
+
+CREATE SEQUENCE IF NOT EXISTS todo_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS todo (
+    id          BIGINT       NOT NULL PRIMARY KEY,
+    title       VARCHAR(255),
+    description VARCHAR(255),
+    completed   BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    version     BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_todo_completed_updated_at ON todo (completed, updated_at);
+CREATE INDEX IF NOT EXISTS idx_todo_updated_at ON todo (updated_at);
+CREATE INDEX IF NOT EXISTS idx_todo_created_at ON todo (created_at);
@@ -315,7 +315,9 @@ public class AwsLambdaDeployer implements CloudDeployer {
                                 .environment(Environment.builder()
                                         .variables(Map.of(
                                                 "AWS_LWA_INVOKE_MODE", "response_stream",
-                                                "AWS_LWA_PORT", "8080"
+                                                "AWS_LWA_PORT", "8080",
+                                                // Requests may hit different execution environments, so keep no MCP session state
+                                                "SPRING_PROFILES_ACTIVE", "stateless"
                                                 // Optional override if not set in Dockerfile:
                                                 // "AWS_LWA_APP_INIT_COMMAND", "java -jar /var/task/app.jar"
                                         ))
@@ -339,7 +341,8 @@ public class AwsLambdaDeployer implements CloudDeployer {
                         .environment(Environment.builder()
                                 .variables(Map.of(
                                         "AWS_LWA_INVOKE_MODE", "response_stream",
-                                        "AWS_LWA_PORT", "8080"
+                                        "AWS_LWA_PORT", "8080",
+                                        "SPRING_PROFILES_ACTIVE", "stateless"
                                 ))
                                 .build())
                         .build());
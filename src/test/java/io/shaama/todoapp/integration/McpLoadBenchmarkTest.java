@@ -0,0 +1,99 @@
+package io.shaama.todoapp.integration;
+
+import io.shaama.todoapp.integration.load.LoadTransport;
+import io.shaama.todoapp.integration.load.McpLoadGenerator;
+import io.shaama.todoapp.integration.load.SseLoadTransport;
+import io.shaama.todoapp.integration.load.StdioLoadTransport;
+import io.shaama.todoapp.integration.load.StreamableHttpLoadTransport;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sizing run for a release: drives the {@link McpLoadGenerator} over each transport in
+ * {@code benchmark.load.transports} against servers started separately, e.g. the instance type to be sized.
+ * stdio sessions are server processes started from {@code benchmark.load.stdio.jar}, one per session.
+ * Results are logged as a table, and the full latency distribution of each transport and tool
+ * is written to {@code benchmark.load.output} as HdrHistogram .hgrm files for plotting.
+ * <pre>
+ * java -Dspring.profiles.active=streamable -jar build/libs/todoapp_streamable-0.0.1-SNAPSHOT.jar
+ * ./gradlew test -Pbenchmark --tests '*McpLoadBenchmarkTest' -Dbenchmark.load.transports=streamable \
+ *   -Dbenchmark.load.sessions=100 -Dbenchmark.load.rate=500 -Dbenchmark.load.mix=fetchTodosPage=60,fetchTodoById=25,searchTodos=10,makeTodo=5
+ * </pre>
+ */
+@Disabled("Benchmark - run manually when needed")
+public class McpLoadBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(McpLoadBenchmarkTest.class);
+
+    private static final List<String> TRANSPORTS = List.of(System.getProperty("benchmark.load.transports", "streamable").split(","));
+    private static final String STREAMABLE_URL = System.getProperty("benchmark.load.streamable.url", "http://localhost:8080/mcp");
+    private static final String SSE_URL = System.getProperty("benchmark.load.sse.url", "http://localhost:8080");
+    private static final Path STDIO_JAR = Path.of(System.getProperty("benchmark.load.stdio.jar", "build/libs/todoapp_stdio-0.0.1-SNAPSHOT.jar"));
+    private static final int SESSIONS = Integer.getInteger("benchmark.load.sessions", 50);
+    private static final double RATE = Double.parseDouble(System.getProperty("benchmark.load.rate", "200"));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.load.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.load.duration-seconds", 60));
+    private static final boolean POISSON = !"uniform".equals(System.getProperty("benchmark.load.arrivals", "poisson"));
+    private static final String MIX = System.getProperty("benchmark.load.mix", "fetchTodosPage=60,fetchTodoById=25,searchTodos=10,makeTodo=5");
+    private static final Path OUTPUT = Path.of(System.getProperty("benchmark.load.output", "build/reports/load"));
+
+    // Arguments for the tools a mix can name; other tools are called without arguments
+    private static final Map<String, Map<String, Object>> ARGUMENTS = Map.of(
+        "fetchTodosPage", Map.of("pageSize", 20),
+        "fetchTodoById", Map.of("id", 1),
+        "fetchTodos", Map.of("completed", false, "limit", 20),
+        "searchTodos", Map.of("query", "load test", "limit", 10),
+        "makeTodo", Map.of("title", "Load test", "description", "Created by the load generator", "completed", false)
+    );
+
+    @Test
+    public void sizeInstance() throws Exception {
+        List<McpLoadGenerator.ToolCall> mix = Arrays.stream(MIX.split(","))
+            .map(entry -> entry.trim().split("="))
+            .map(toolAndWeight -> new McpLoadGenerator.ToolCall(toolAndWeight[0],
+                ARGUMENTS.getOrDefault(toolAndWeight[0], Map.of()), Integer.parseInt(toolAndWeight[1])))
+            .toList();
+        McpLoadGenerator generator = new McpLoadGenerator(
+            new McpLoadGenerator.Settings(SESSIONS, RATE, WARMUP, DURATION, POISSON, mix));
+
+        Files.createDirectories(OUTPUT);
+        List<McpLoadGenerator.Result> results = new ArrayList<>();
+        for (String name : TRANSPORTS) {
+            try (LoadTransport transport = transport(name.trim())) {
+                McpLoadGenerator.Result result = generator.run(transport);
+                results.add(result);
+                log.info("[{}] {} sends over a millisecond late", result.transport(), result.lateSends());
+                for (Map.Entry<String, McpLoadGenerator.ToolResult> tool : result.tools().entrySet()) {
+                    try (PrintStream out = new PrintStream(OUTPUT.resolve(result.transport() + "-" + tool.getKey() + ".hgrm").toFile())) {
+                        // Recorded in microseconds, written in milliseconds
+                        tool.getValue().latency().outputPercentileDistribution(out, 1000.0);
+                    }
+                }
+            }
+        }
+
+        log.info("{} sessions, {} req/s {} arrivals for {} s after {} s warmup, latency in ms:{}",
+            SESSIONS, RATE, POISSON ? "poisson" : "uniform", DURATION.toSeconds(), WARMUP.toSeconds(),
+            McpLoadGenerator.summary(results));
+    }
+
+    private static LoadTransport transport(String name) {
+        return switch (name) {
+            case "stdio" -> new StdioLoadTransport(STDIO_JAR, List.of());
+            case "sse" -> new SseLoadTransport(SSE_URL);
+            case "streamable" -> new StreamableHttpLoadTransport(STREAMABLE_URL);
+            default -> throw new IllegalArgumentException("Unknown transport " + name);
+        };
+    }
+}
@@ -0,0 +1,146 @@
+package io.shaama.todoapp.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.shaama.todoapp.TodoappApplication;
+import io.shaama.todoapp.integration.util.JsonRpcMessageBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs two instances of the server in the stateless profile against one shared database and
+ * sends consecutive requests of the same client to alternating instances, the way a round-robin
+ * load balancer or separate Lambda execution environments would. No request carries a session id.
+ */
+@Disabled
+public class McpServerStatelessE2ETest {
+
+    private static final Logger log = LoggerFactory.getLogger(McpServerStatelessE2ETest.class);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static ConfigurableApplicationContext instanceA;
+    private static ConfigurableApplicationContext instanceB;
+    private static String urlA;
+    private static String urlB;
+
+    private final JsonRpcMessageBuilder jsonRpcBuilder = new JsonRpcMessageBuilder();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    @BeforeAll
+    public static void startInstances() {
+        // Started one after the other so only the first one creates the schema
+        instanceA = start();
+        instanceB = start();
+        urlA = "http://localhost:" + instanceA.getEnvironment().getProperty("local.server.port") + "/mcp";
+        urlB = "http://localhost:" + instanceB.getEnvironment().getProperty("local.server.port") + "/mcp";
+    }
+
+    @AfterAll
+    public static void stopInstances() {
+        if (instanceB != null) {
+            instanceB.close();
+        }
+        if (instanceA != null) {
+            instanceA.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(TodoappApplication.class)
+            .profiles("test", "stateless")
+            // Arguments rather than default properties, so they win over application-test.properties.
+            // DB_CLOSE_DELAY keeps the in-memory database alive for both contexts in this JVM
+            .run("--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:stateless-e2e;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=update");
+    }
+
+    @Test
+    public void requestsOfOneClientCanBeServedByAnyInstance() throws Exception {
+        // Given - initialize on A does not open a session
+        HttpResponse<String> initResponse = post(urlA, jsonRpcBuilder.createInitializeRequest());
+        assertEquals(200, initResponse.statusCode());
+        assertTrue(initResponse.headers().firstValue("Mcp-Session-Id").isEmpty());
+        assertTrue(initResponse.body().contains("serverInfo"));
+
+        // When - B lists the tools without ever having seen this client
+        HttpResponse<String> toolsResponse = post(urlB, jsonRpcBuilder.createToolsListRequest());
+
+        // Then
+        assertEquals(200, toolsResponse.statusCode());
+        assertTrue(toolsResponse.body().contains("makeTodo"));
+
+        // When - the todo is created on B and read back on A
+        JsonNode created = callTool(urlB, "makeTodo",
+            Map.of("title", "Stateless", "description", "Created on B", "completed", false));
+        long id = created.path("todo").path("id").asLong();
+        JsonNode fetched = callTool(urlA, "fetchTodoById", Map.of("id", id));
+
+        // Then
+        assertEquals("Created on B", fetched.path("description").asText());
+
+        // When - A searches for it, although only B saw the write
+        JsonNode found = callTool(urlA, "searchTodos", Map.of("query", "stateless"));
+
+        // Then
+        assertEquals(id, found.path(0).path("id").asLong());
+
+        // When - A changes it and B reads it, so no instance may serve a stale copy
+        callTool(urlA, "changeTodo",
+            Map.of("id", id, "title", "Stateless", "description", "Changed on A", "completed", true));
+        JsonNode changed = callTool(urlB, "fetchTodoById", Map.of("id", id));
+
+        // Then
+        assertEquals("Changed on A", changed.path("description").asText());
+        assertTrue(changed.path("completed").asBoolean());
+
+        // When - B deletes it
+        JsonNode removed = callTool(urlB, "removeTodo", Map.of("id", id));
+        JsonNode gone = callTool(urlA, "fetchTodoById", Map.of("id", id));
+
+        // Then
+        assertTrue(removed.asBoolean());
+        assertFalse(gone.has("id"));
+    }
+
+    private JsonNode callTool(String url, String toolName, Map<String, Object> arguments) throws Exception {
+        HttpResponse<String> response = post(url, jsonRpcBuilder.createToolCallRequest(toolName, arguments));
+        log.info("{} on {}: {} {}", toolName, url, response.statusCode(), response.body());
+        assertEquals(200, response.statusCode());
+
+        JsonNode result = objectMapper.readTree(response.body()).path("result");
+        assertFalse(result.path("isError").asBoolean(), response.body());
+        return objectMapper.readTree(result.path("content").path(0).path("text").asText());
+    }
+
+    private HttpResponse<String> post(String url, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(URI.create(url))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json, text/event-stream")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,204 @@
+package io.shaama.todoapp.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.shaama.todoapp.integration.util.JsonRpcMessageBuilder;
+import io.shaama.todoapp.todo.store.BoundedTodoStore;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test for the virtual-thread profile. Every session calls makeTodo, and the client delays
+ * its sampling reply, so each call keeps a server request thread blocked for that long. Tomcat's
+ * platform pool is capped at {@value #PLATFORM_THREADS} threads. With virtual threads, far more
+ * calls than that are parked in sampling at once, and the whole run finishes in about one
+ * sampling delay instead of {@code sessions / PLATFORM_THREADS} delays.
+ * Each session then runs a fetchTodos query, which must never exceed the database permits.
+ * <p>
+ * Tune with {@code -Dbenchmark.sessions} and {@code -Dbenchmark.sampling-delay-ms}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+    "spring.main.allow-bean-definition-overriding=true",
+    "spring.profiles.active=test,streamable,virtual",
+    "server.tomcat.threads.max=" + McpServerVirtualThreadsLoadTest.PLATFORM_THREADS,
+    "spring.jpa.show-sql=false"
+})
+@Disabled("Benchmark - run manually when needed")
+public class McpServerVirtualThreadsLoadTest {
+
+    static final int PLATFORM_THREADS = 50;
+
+    private static final Logger log = LoggerFactory.getLogger(McpServerVirtualThreadsLoadTest.class);
+
+    private static final int SESSIONS = Integer.getInteger("benchmark.sessions", 2_000);
+    private static final Duration SAMPLING_DELAY = Duration.ofMillis(Long.getLong("benchmark.sampling-delay-ms", 2_000));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BoundedTodoStore boundedTodoStore;
+
+    private final AtomicInteger inSampling = new AtomicInteger();
+    private final AtomicInteger peakInSampling = new AtomicInteger();
+    private final AtomicInteger peakDbInFlight = new AtomicInteger();
+
+    @Test
+    public void concurrentSamplingCalls_ShouldExceedPlatformThreadCount() throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+        String baseUrl = "http://localhost:" + port + "/mcp";
+
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread dbSampler = Thread.ofPlatform().daemon().start(() -> {
+            while (sampling.get()) {
+                peakDbInFlight.accumulateAndGet(boundedTodoStore.getInFlight(), Math::max);
+                LockSupport.parkNanos(100_000);
+            }
+        });
+
+        long startNanos = System.nanoTime();
+        List<Future<Boolean>> sessions = new ArrayList<>(SESSIONS);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < SESSIONS; i++) {
+                int session = i;
+                sessions.add(clients.submit(() -> runSession(httpClient, baseUrl, session)));
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        sampling.set(false);
+        dbSampler.join();
+
+        long completed = 0;
+        for (Future<Boolean> session : sessions) {
+            if (session.get()) {
+                completed++;
+            }
+        }
+        Duration platformBound = SAMPLING_DELAY.multipliedBy((SESSIONS + PLATFORM_THREADS - 1) / PLATFORM_THREADS);
+        log.info("{} of {} sessions completed in {} ms; peak {} calls parked in sampling; "
+                + "peak {} of {} database permits in use; a {}-thread pool needs at least {} ms",
+            completed, SESSIONS, elapsed.toMillis(), peakInSampling.get(),
+            peakDbInFlight.get(), boundedTodoStore.getMaxConcurrency(), PLATFORM_THREADS, platformBound.toMillis());
+
+        assertThat(completed).isEqualTo(SESSIONS);
+        assertThat(peakInSampling.get()).isGreaterThan(PLATFORM_THREADS * 4);
+        assertThat(elapsed).isLessThan(platformBound.dividedBy(2));
+        assertThat(peakDbInFlight.get()).isLessThanOrEqualTo(boundedTodoStore.getMaxConcurrency());
+    }
+
+    private boolean runSession(HttpClient httpClient, String baseUrl, int session) throws Exception {
+        JsonRpcMessageBuilder jsonRpcBuilder = new JsonRpcMessageBuilder();
+
+        HttpResponse<String> initResponse = httpClient.send(
+            post(baseUrl, null, jsonRpcBuilder.createSamplingInitializeRequest()),
+            HttpResponse.BodyHandlers.ofString());
+        assertThat(initResponse.statusCode()).isEqualTo(200);
+        String sessionId = initResponse.headers().firstValue("Mcp-Session-Id").orElse(null);
+
+        httpClient.send(post(baseUrl, sessionId, jsonRpcBuilder.createInitializedNotification()),
+            HttpResponse.BodyHandlers.discarding());
+
+        String makeTodo = jsonRpcBuilder.createToolCallRequest("makeTodo", Map.of(
+            "title", "Load test todo " + session,
+            "description", "Created by the virtual thread load test",
+            "completed", false));
+        if (!awaitToolResult(httpClient, baseUrl, sessionId, makeTodo, jsonRpcBuilder)) {
+            return false;
+        }
+
+        String fetchTodos = jsonRpcBuilder.createToolCallRequest("fetchTodos", Map.of(
+            "completed", false,
+            "limit", 10));
+        return awaitToolResult(httpClient, baseUrl, sessionId, fetchTodos, jsonRpcBuilder);
+    }
+
+    /**
+     * Sends a tools/call and reads its SSE response, answering any sampling request on the way
+     * after {@link #SAMPLING_DELAY}. Returns whether a successful tool result arrived.
+     */
+    private boolean awaitToolResult(HttpClient httpClient, String baseUrl, String sessionId,
+                                    String toolCall, JsonRpcMessageBuilder jsonRpcBuilder) throws Exception {
+        JsonNode callId = objectMapper.readTree(toolCall).get("id");
+        HttpResponse<Stream<String>> response = httpClient.send(
+            post(baseUrl, sessionId, toolCall), HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+
+        try (Stream<String> lines = response.body()) {
+            Iterator<String> iterator = lines.iterator();
+            while (iterator.hasNext()) {
+                String line = iterator.next();
+                // Plain JSON responses carry the message as the whole body, SSE ones on data: lines
+                String data = line.startsWith("data:") ? line.substring("data:".length()).trim() : line.trim();
+                if (!data.startsWith("{")) {
+                    continue;
+                }
+                JsonNode message = objectMapper.readTree(data);
+                if ("sampling/createMessage".equals(message.path("method").asText())) {
+                    answerSampling(httpClient, baseUrl, sessionId, message.get("id"), jsonRpcBuilder);
+                } else if (callId.equals(message.get("id"))) {
+                    return message.has("result") && !message.path("result").path("isError").asBoolean(false);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void answerSampling(HttpClient httpClient, String baseUrl, String sessionId, JsonNode requestId,
+                                JsonRpcMessageBuilder jsonRpcBuilder) throws Exception {
+        peakInSampling.accumulateAndGet(inSampling.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(SAMPLING_DELAY);
+        } finally {
+            inSampling.decrementAndGet();
+        }
+        String result = jsonRpcBuilder.createSamplingResult(
+            objectMapper.writeValueAsString(requestId), "Todo lists predate paper.");
+        httpClient.send(post(baseUrl, sessionId, result), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static HttpRequest post(String baseUrl, String sessionId, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+            .uri(URI.create(baseUrl))
+            .timeout(Duration.ofMinutes(2))
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json, text/event-stream")
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (sessionId != null) {
+            builder.header("Mcp-Session-Id", sessionId);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,185 @@
+package io.shaama.todoapp.integration;
+
+import io.shaama.todoapp.integration.util.JsonRpcMessageBuilder;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Side-by-side benchmark of many concurrent, long-lived Streamable HTTP sessions against
+ * separately started servers, e.g. the streamable (WebMVC), streamable,virtual and webflux
+ * builds. Each session keeps its server-to-client SSE stream open and calls fetchTodosPage
+ * once per interval for the whole run. The output is a table of latency and error counts per target.
+ * <pre>
+ * java -Dspring.profiles.active=streamable -Dserver.port=8081 -jar build/libs/todoapp_streamable-0.0.1-SNAPSHOT.jar
+ * java -Dspring.profiles.active=streamable,virtual -Dserver.port=8082 -jar build/libs/todoapp_streamable-0.0.1-SNAPSHOT.jar
+ * java -Dspring.profiles.active=webflux -Dserver.port=8083 -jar build/libs/todoapp_webflux-0.0.1-SNAPSHOT.jar
+ * ./gradlew test -Pbenchmark --tests '*McpSessionScalingBenchmarkTest' \
+ *   -Dbenchmark.targets=webmvc=http://localhost:8081/mcp,virtual=http://localhost:8082/mcp,webflux=http://localhost:8083/mcp
+ * </pre>
+ */
+@Disabled("Benchmark - run manually when needed")
+public class McpSessionScalingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(McpSessionScalingBenchmarkTest.class);
+
+    private static final String TARGETS = System.getProperty("benchmark.targets", "webmvc=http://localhost:8080/mcp");
+    private static final int SESSIONS = Integer.getInteger("benchmark.sessions", 1_000);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 30));
+    private static final Duration INTERVAL = Duration.ofMillis(Long.getLong("benchmark.interval-ms", 1_000));
+
+    private record Session(String id, CompletableFuture<HttpResponse<Stream<String>>> listeningStream) {
+    }
+
+    private record Result(String target, int sessionsOpened, int openFailures, long calls, long errors,
+                          long p50Micros, long p99Micros, long maxMicros) {
+    }
+
+    @Test
+    public void concurrentLongLivedSessions() throws Exception {
+        Map<String, String> targets = new LinkedHashMap<>();
+        for (String target : TARGETS.split(",")) {
+            String[] nameAndUrl = target.split("=", 2);
+            targets.put(nameAndUrl[0].trim(), nameAndUrl[1].trim());
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (Map.Entry<String, String> target : targets.entrySet()) {
+            results.add(run(target.getKey(), target.getValue()));
+        }
+
+        StringBuilder table = new StringBuilder(String.format("%n%-10s %9s %9s %9s %8s %10s %10s %10s%n",
+            "target", "sessions", "failed", "calls", "errors", "p50 (ms)", "p99 (ms)", "max (ms)"));
+        for (Result result : results) {
+            table.append(String.format("%-10s %9d %9d %9d %8d %10.1f %10.1f %10.1f%n",
+                result.target(), result.sessionsOpened(), result.openFailures(), result.calls(), result.errors(),
+                result.p50Micros() / 1000.0, result.p99Micros() / 1000.0, result.maxMicros() / 1000.0));
+        }
+        log.info("{} sessions for {} s, one call per {} ms each:{}", SESSIONS, DURATION.toSeconds(), INTERVAL.toMillis(), table);
+    }
+
+    private Result run(String name, String url) throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+        // Open every session and its listening stream before the load starts
+        ConcurrentLinkedQueue<Session> sessions = new ConcurrentLinkedQueue<>();
+        AtomicInteger openFailures = new AtomicInteger();
+        try (ExecutorService openers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < SESSIONS; i++) {
+                openers.execute(() -> {
+                    try {
+                        sessions.add(open(httpClient, url));
+                    } catch (Exception e) {
+                        openFailures.incrementAndGet();
+                    }
+                });
+            }
+        }
+        log.info("[{}] {} sessions open, {} failed", name, sessions.size(), openFailures.get());
+
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger errors = new AtomicInteger();
+        long endNanos = System.nanoTime() + DURATION.toNanos();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Session session : sessions) {
+                callers.execute(() -> {
+                    JsonRpcMessageBuilder jsonRpcBuilder = new JsonRpcMessageBuilder();
+                    while (System.nanoTime() < endNanos) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = httpClient.send(
+                                post(url, session.id(), jsonRpcBuilder.createToolCallRequest("fetchTodosPage", Map.of("pageSize", 10))),
+                                HttpResponse.BodyHandlers.ofString());
+                            if (response.statusCode() != 200 || !response.body().contains("\"result\"")) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.add((System.nanoTime() - start) / 1_000);
+                        sleep(INTERVAL);
+                    }
+                });
+            }
+        }
+
+        for (Session session : sessions) {
+            session.listeningStream().cancel(true);
+            try {
+                httpClient.send(HttpRequest.newBuilder(URI.create(url)).header("Mcp-Session-Id", session.id()).DELETE().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            } catch (Exception e) {
+                // Best effort, the server expires idle sessions anyway
+            }
+        }
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(name, sessions.size(), openFailures.get(), sorted.length, errors.get(),
+            percentile(sorted, 0.50), percentile(sorted, 0.99), sorted.length == 0 ? 0 : sorted[sorted.length - 1]);
+    }
+
+    private static Session open(HttpClient httpClient, String url) throws Exception {
+        JsonRpcMessageBuilder jsonRpcBuilder = new JsonRpcMessageBuilder();
+        HttpResponse<String> init = httpClient.send(post(url, null, jsonRpcBuilder.createInitializeRequest()),
+            HttpResponse.BodyHandlers.ofString());
+        String sessionId = init.headers().firstValue("Mcp-Session-Id")
+            .orElseThrow(() -> new IllegalStateException("No session id, status " + init.statusCode()));
+        httpClient.send(post(url, sessionId, jsonRpcBuilder.createInitializedNotification()),
+            HttpResponse.BodyHandlers.discarding());
+
+        HttpRequest listen = HttpRequest.newBuilder(URI.create(url))
+            .header("Accept", "text/event-stream")
+            .header("Mcp-Session-Id", sessionId)
+            .GET()
+            .build();
+        return new Session(sessionId, httpClient.sendAsync(listen, HttpResponse.BodyHandlers.ofLines()));
+    }
+
+    private static HttpRequest post(String url, String sessionId, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json, text/event-stream")
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (sessionId != null) {
+            builder.header("Mcp-Session-Id", sessionId);
+        }
+        return builder.build();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
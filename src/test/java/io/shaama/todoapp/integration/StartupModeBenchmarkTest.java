@@ -0,0 +1,128 @@
+package io.shaama.todoapp.integration;
+
+import io.shaama.todoapp.integration.util.JsonRpcMessageBuilder;
+import io.shaama.todoapp.integration.util.ServerProcess;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares time-to-first-initialize of the plain boot jar with the startup-optimized mode of
+ * {@code Dockerfile.startup}: Spring AOT code plus an AppCDS archive from a training run. The
+ * jar must be built with AOT for the profile being measured, which has to be a Streamable HTTP
+ * profile. The benchmark extracts the jar and runs the training itself, then launches both modes
+ * alternately and reports the time from launch to "Started TodoappApplication" and to the
+ * first successful {@code initialize}.
+ * <pre>
+ * ./gradlew clean build -x test -Pprofile=streamable -Paot=true
+ * ./gradlew test -Pbenchmark --tests '*StartupModeBenchmarkTest' -Dbenchmark.jar=build/libs/todoapp_streamable-0.0.1-SNAPSHOT.jar
+ * </pre>
+ */
+@Disabled("Benchmark - run manually when needed")
+public class StartupModeBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupModeBenchmarkTest.class);
+
+    private static final Path JAR = Path.of(System.getProperty("benchmark.jar", "build/libs/todoapp_streamable-0.0.1-SNAPSHOT.jar"));
+    private static final String PROFILE = System.getProperty("benchmark.profile", "streamable");
+    private static final int RUNS = Integer.getInteger("benchmark.runs", 5);
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(1))
+        .build();
+
+    @Test
+    public void timeToFirstInitialize() throws Exception {
+        Path workDir = Files.createTempDirectory("startup-benchmark");
+        Path extracted = workDir.resolve("extracted");
+        Files.copy(JAR, workDir.resolve("app.jar"));
+
+        // Same steps as Dockerfile.startup: extract the jar, then refresh the context once to record the archive
+        run(workDir, List.of(JAVA, "-Djarmode=tools", "-jar", "app.jar", "extract", "--destination", "extracted"));
+        run(extracted, List.of(JAVA, "-XX:ArchiveClassesAtExit=app.jsa", "-Dspring.aot.enabled=true",
+            "-Dspring.context.exit=onRefresh", "-Dspring.profiles.active=" + PROFILE, "-jar", "app.jar"));
+
+        long[][] baseline = new long[2][RUNS];
+        long[][] optimized = new long[2][RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            // Alternate the modes so drift on the machine affects both alike
+            measure(workDir, List.of(), baseline, i);
+            measure(extracted, List.of("-XX:SharedArchiveFile=app.jsa", "-Dspring.aot.enabled=true"), optimized, i);
+        }
+
+        StringBuilder table = new StringBuilder(String.format("%n%-10s %16s %16s %16s %16s%n",
+            "mode", "ready p50 (ms)", "ready max (ms)", "init p50 (ms)", "init max (ms)"));
+        append(table, "jar", baseline);
+        append(table, "aot+cds", optimized);
+        log.info("{} profile, {} runs per mode:{}", PROFILE, RUNS, table);
+    }
+
+    private void measure(Path dir, List<String> flags, long[][] results, int run) throws Exception {
+        int port = ServerProcess.freePort();
+        List<String> command = new ArrayList<>(List.of(JAVA));
+        command.addAll(flags);
+        command.addAll(List.of("-Dspring.profiles.active=" + PROFILE, "-Dserver.port=" + port, "-jar", "app.jar"));
+
+        try (ServerProcess server = ServerProcess.launch(command, dir)) {
+            results[0][run] = server.awaitLine(line -> line.contains("Started TodoappApplication"), STARTUP_TIMEOUT)
+                .nanosSinceLaunch();
+            results[1][run] = awaitInitialize(server, "http://localhost:" + port + "/mcp");
+        }
+    }
+
+    private long awaitInitialize(ServerProcess server, String url) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json, text/event-stream")
+            .POST(HttpRequest.BodyPublishers.ofString(new JsonRpcMessageBuilder().createInitializeRequest()))
+            .build();
+        while (server.nanosSinceLaunch() < STARTUP_TIMEOUT.toNanos()) {
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return server.nanosSinceLaunch();
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No initialize response within " + STARTUP_TIMEOUT);
+    }
+
+    private static void run(Path dir, List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command)
+            .directory(dir.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(dir.resolve("setup.log").toFile())
+            .start();
+        assertEquals(0, process.waitFor(), "Failed, see " + dir.resolve("setup.log") + ": " + command);
+    }
+
+    private static void append(StringBuilder table, String mode, long[][] results) {
+        long[] ready = results[0].clone();
+        long[] init = results[1].clone();
+        Arrays.sort(ready);
+        Arrays.sort(init);
+        table.append(String.format("%-10s %16.0f %16.0f %16.0f %16.0f%n", mode,
+            ready[ready.length / 2] / 1e6, ready[ready.length - 1] / 1e6,
+            init[init.length / 2] / 1e6, init[init.length - 1] / 1e6));
+    }
+}
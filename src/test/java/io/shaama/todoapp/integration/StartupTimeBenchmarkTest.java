@@ -0,0 +1,250 @@
+package io.shaama.todoapp.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.shaama.todoapp.integration.util.JsonRpcMessageBuilder;
+import io.shaama.todoapp.integration.util.ServerProcess;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Launches the boot jar {@code benchmark.runs} times per transport profile and measures, from
+ * process launch, when the JVM got to the application ("Starting TodoappApplication"), when the
+ * context was ready ("Started TodoappApplication"), and when the first {@code initialize} and the
+ * first {@code tools/call} were answered. Clients send their first request as soon as the
+ * transport accepts it: stdio writes it into the pipe at launch, HTTP profiles poll until the
+ * server responds.
+ * <p>
+ * p50/p95 per phase and profile are logged and written with the raw samples to
+ * {@code benchmark.output} as JSON, so results of two builds can be diffed or charted.
+ * <pre>
+ * ./gradlew bootJar -Pprofile=streamable
+ * ./gradlew test -Pbenchmark --tests '*StartupTimeBenchmarkTest' -Dbenchmark.runs=20
+ * # The AOT+CDS mode of Dockerfile.startup, measured on an extracted jar
+ * ./gradlew test -Pbenchmark --tests '*StartupTimeBenchmarkTest' -Dbenchmark.profiles=streamable \
+ *   -Dbenchmark.jar=/tmp/extracted/app.jar -Dbenchmark.jvm-args="-XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true"
+ * </pre>
+ */
+@Disabled("Benchmark - run manually when needed")
+public class StartupTimeBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeBenchmarkTest.class);
+
+    private static final Path JAR = Path.of(System.getProperty("benchmark.jar", "build/libs/todoapp_streamable-0.0.1-SNAPSHOT.jar"))
+        .toAbsolutePath();
+    private static final List<String> PROFILES = List.of(System.getProperty("benchmark.profiles", "stdio,sse,streamable").split(","));
+    private static final List<String> JVM_ARGS = Arrays.stream(System.getProperty("benchmark.jvm-args", "").split("\\s+"))
+        .filter(arg -> !arg.isBlank())
+        .toList();
+    private static final int RUNS = Integer.getInteger("benchmark.runs", 10);
+    private static final Path OUTPUT = Path.of(System.getProperty("benchmark.output", "build/reports/startup/startup-benchmark.json"));
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    private static final List<String> PHASES = List.of("jvmStart", "contextReady", "firstInitialize", "firstToolCall");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(1))
+        .build();
+
+    @Test
+    public void timeToFirstResponse() throws Exception {
+        Map<String, Map<String, Object>> profiles = new LinkedHashMap<>();
+        StringBuilder table = new StringBuilder(String.format("%n%-12s %-16s %10s %10s%n", "profile", "phase", "p50 (ms)", "p95 (ms)"));
+
+        for (String profile : PROFILES) {
+            long[][] samples = new long[PHASES.size()][RUNS];
+            for (int run = 0; run < RUNS; run++) {
+                long[] phases = launch(profile.trim());
+                for (int phase = 0; phase < phases.length; phase++) {
+                    samples[phase][run] = phases[phase];
+                }
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            for (int phase = 0; phase < PHASES.size(); phase++) {
+                double[] millis = Arrays.stream(samples[phase]).sorted().mapToDouble(nanos -> nanos / 1e6).toArray();
+                double p50 = percentile(millis, 0.50);
+                double p95 = percentile(millis, 0.95);
+                result.put(PHASES.get(phase), Map.of("p50Ms", p50, "p95Ms", p95, "samplesMs", millis));
+                table.append(String.format("%-12s %-16s %10.0f %10.0f%n", profile.trim(), PHASES.get(phase), p50, p95));
+            }
+            profiles.put(profile.trim(), result);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("jar", JAR.getFileName().toString());
+        report.put("jvmArgs", JVM_ARGS);
+        report.put("runs", RUNS);
+        report.put("profiles", profiles);
+        Files.createDirectories(OUTPUT.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(OUTPUT.toFile(), report);
+
+        log.info("Startup times over {} runs, written to {}:{}", RUNS, OUTPUT.toAbsolutePath(), table);
+    }
+
+    /**
+     * Returns the nanoseconds from launch to each of {@link #PHASES}
+     */
+    private long[] launch(String profile) throws Exception {
+        int port = ServerProcess.freePort();
+        List<String> command = new ArrayList<>(List.of(JAVA));
+        command.addAll(JVM_ARGS);
+        // The stdio profile logs to a file only; console lines are told apart from JSON-RPC messages below
+        command.addAll(List.of("-Dspring.profiles.active=" + profile, "-Dserver.port=" + port,
+            "-Dlogging.threshold.console=INFO", "-jar", JAR.toString()));
+
+        try (ServerProcess server = ServerProcess.launch(command, JAR.getParent())) {
+            long[] firstResponses = switch (profile) {
+                case "stdio" -> stdio(server);
+                case "sse" -> sse(server, "http://localhost:" + port);
+                default -> streamable(server, "http://localhost:" + port + "/mcp");
+            };
+            long jvmStart = server.awaitLine(line -> line.contains("Starting TodoappApplication"), TIMEOUT).nanosSinceLaunch();
+            long contextReady = server.awaitLine(line -> line.contains("Started TodoappApplication"), TIMEOUT).nanosSinceLaunch();
+            return new long[]{jvmStart, contextReady, firstResponses[0], firstResponses[1]};
+        }
+    }
+
+    private long[] stdio(ServerProcess server) throws InterruptedException {
+        JsonRpcMessageBuilder jsonRpcBuilder = new JsonRpcMessageBuilder();
+        server.send(jsonRpcBuilder.createInitializeRequest());
+        long initialize = server.awaitLine(line -> isResponse(line, 1), TIMEOUT).nanosSinceLaunch();
+        server.send(jsonRpcBuilder.createInitializedNotification());
+        server.send(jsonRpcBuilder.createToolCallRequest("fetchAllTodos", Map.of()));
+        long toolCall = server.awaitLine(line -> isResponse(line, 2), TIMEOUT).nanosSinceLaunch();
+        return new long[]{initialize, toolCall};
+    }
+
+    private long[] streamable(ServerProcess server, String url) throws Exception {
+        JsonRpcMessageBuilder jsonRpcBuilder = new JsonRpcMessageBuilder();
+        String initializeRequest = jsonRpcBuilder.createInitializeRequest();
+        HttpResponse<String> initialize = null;
+        while (initialize == null || initialize.statusCode() != 200) {
+            checkTimeout(server);
+            initialize = trySend(post(url, null, initializeRequest));
+        }
+        long initialized = server.nanosSinceLaunch();
+
+        String sessionId = initialize.headers().firstValue("Mcp-Session-Id").orElse(null);
+        httpClient.send(post(url, sessionId, jsonRpcBuilder.createInitializedNotification()), HttpResponse.BodyHandlers.discarding());
+        HttpResponse<String> toolCall = httpClient.send(
+            post(url, sessionId, jsonRpcBuilder.createToolCallRequest("fetchAllTodos", Map.of())),
+            HttpResponse.BodyHandlers.ofString());
+        if (!toolCall.body().contains("\"result\"")) {
+            throw new IllegalStateException("tools/call failed: " + toolCall.statusCode() + " " + toolCall.body());
+        }
+        return new long[]{initialized, server.nanosSinceLaunch()};
+    }
+
+    private long[] sse(ServerProcess server, String baseUrl) throws Exception {
+        HttpRequest connect = HttpRequest.newBuilder(URI.create(baseUrl + "/sse"))
+            .header("Accept", "text/event-stream")
+            .GET()
+            .build();
+        HttpResponse<Stream<String>> stream = null;
+        while (stream == null || stream.statusCode() != 200) {
+            checkTimeout(server);
+            try {
+                stream = httpClient.send(connect, HttpResponse.BodyHandlers.ofLines());
+            } catch (IOException e) {
+                Thread.sleep(5);
+            }
+        }
+
+        BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        Stream<String> lines = stream.body();
+        CompletableFuture.runAsync(() -> lines.forEach(events::add));
+        try {
+            String endpoint = awaitEvent(server, events, line -> line.startsWith("data:")).substring("data:".length()).trim();
+            String url = baseUrl + endpoint;
+
+            JsonRpcMessageBuilder jsonRpcBuilder = new JsonRpcMessageBuilder();
+            httpClient.send(post(url, null, jsonRpcBuilder.createInitializeRequest()), HttpResponse.BodyHandlers.discarding());
+            long initialize = awaitResponse(server, events, 1);
+            httpClient.send(post(url, null, jsonRpcBuilder.createInitializedNotification()), HttpResponse.BodyHandlers.discarding());
+            httpClient.send(post(url, null, jsonRpcBuilder.createToolCallRequest("fetchAllTodos", Map.of())),
+                HttpResponse.BodyHandlers.discarding());
+            return new long[]{initialize, awaitResponse(server, events, 2)};
+        } finally {
+            lines.close();
+        }
+    }
+
+    private long awaitResponse(ServerProcess server, BlockingQueue<String> events, int id) throws InterruptedException {
+        awaitEvent(server, events, line -> line.startsWith("data:") && isResponse(line.substring("data:".length()).trim(), id));
+        return server.nanosSinceLaunch();
+    }
+
+    private static String awaitEvent(ServerProcess server, BlockingQueue<String> events,
+                                     Predicate<String> matcher) throws InterruptedException {
+        while (true) {
+            checkTimeout(server);
+            String line = events.poll(100, TimeUnit.MILLISECONDS);
+            if (line != null && matcher.test(line)) {
+                return line;
+            }
+        }
+    }
+
+    private HttpResponse<String> trySend(HttpRequest request) throws InterruptedException {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            // Not listening yet
+            Thread.sleep(5);
+            return null;
+        }
+    }
+
+    private static HttpRequest post(String url, String sessionId, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json, text/event-stream")
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (sessionId != null) {
+            builder.header("Mcp-Session-Id", sessionId);
+        }
+        return builder.build();
+    }
+
+    private static boolean isResponse(String line, int id) {
+        return line.startsWith("{") && line.contains("\"id\":" + id + ",");
+    }
+
+    private static void checkTimeout(ServerProcess server) {
+        if (server.nanosSinceLaunch() > TIMEOUT.toNanos()) {
+            throw new IllegalStateException("No response within " + TIMEOUT);
+        }
+    }
+
+    private static double percentile(double[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,30 @@
+package io.shaama.todoapp.integration.load;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One way of talking MCP to the server under load. Sessions are opened before the load starts
+ * and are initialized by the time {@link #open()} returns.
+ */
+public interface LoadTransport extends AutoCloseable {
+
+    String name();
+
+    Session open() throws Exception;
+
+    interface Session extends AutoCloseable {
+
+        /**
+         * Sends a request carrying {@code id} and completes with its response. Must not wait for
+         * the response, so requests of one session can overlap like they do for real clients.
+         */
+        CompletableFuture<String> send(long id, String request);
+
+        @Override
+        void close();
+    }
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,212 @@
+package io.shaama.todoapp.integration.load;
+
+import io.shaama.todoapp.integration.util.JsonRpcMessageBuilder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop MCP load. Requests go out on a schedule, at a constant rate or with Poisson arrivals
+ * at {@code ratePerSecond}, however fast the server answers. They are spread round-robin over
+ * the sessions, and each picks its tool from the weighted mix. Every request is rendered from a
+ * template prepared up front, so the client spends its time waiting on the server rather than
+ * building JSON.
+ * <p>
+ * Latency is measured from the moment a request was scheduled, not from when it went out. A
+ * server (or client) that stalls therefore shows up as latency instead of as fewer requests,
+ * which corrects for coordinated omission. The service time from the actual send is recorded
+ * next to it, and the gap between the two shows how much queueing a closed-loop test would hide.
+ */
+public class McpLoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(McpLoadGenerator.class);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final long LATE_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    public record ToolCall(String tool, Map<String, Object> arguments, int weight) {
+    }
+
+    public record Settings(int sessions, double ratePerSecond, Duration warmup, Duration duration,
+                           boolean poissonArrivals, List<ToolCall> mix) {
+    }
+
+    /**
+     * Latency and service time in microseconds
+     */
+    public record ToolResult(Histogram latency, Histogram serviceTime, long errors) {
+    }
+
+    /**
+     * {@code lateSends} counts requests the generator itself sent over a millisecond behind schedule
+     */
+    public record Result(String transport, int sessions, int sessionFailures, long lateSends, Map<String, ToolResult> tools) {
+    }
+
+    private final Settings settings;
+    private final JsonRpcMessageBuilder.Template[] templates;
+    private final int[] cumulativeWeights;
+
+    public McpLoadGenerator(Settings settings) {
+        this.settings = settings;
+        JsonRpcMessageBuilder jsonRpcBuilder = new JsonRpcMessageBuilder();
+        List<ToolCall> mix = settings.mix();
+        this.templates = new JsonRpcMessageBuilder.Template[mix.size()];
+        this.cumulativeWeights = new int[mix.size()];
+        int total = 0;
+        for (int i = 0; i < mix.size(); i++) {
+            templates[i] = jsonRpcBuilder.toolCallTemplate(mix.get(i).tool(), mix.get(i).arguments());
+            total += mix.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public Result run(LoadTransport transport) throws InterruptedException {
+        ConcurrentLinkedQueue<LoadTransport.Session> opened = new ConcurrentLinkedQueue<>();
+        LongAdder sessionFailures = new LongAdder();
+        try (ExecutorService openers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.sessions(); i++) {
+                openers.execute(() -> {
+                    try {
+                        opened.add(transport.open());
+                    } catch (Exception e) {
+                        sessionFailures.increment();
+                        log.warn("[{}] Could not open session: {}", transport.name(), e.getMessage());
+                    }
+                });
+            }
+        }
+        List<LoadTransport.Session> sessions = new ArrayList<>(opened);
+        if (sessions.isEmpty()) {
+            throw new IllegalStateException("No session could be opened over " + transport.name());
+        }
+        log.info("[{}] {} sessions open, {} failed", transport.name(), sessions.size(), sessionFailures.sum());
+
+        int tools = templates.length;
+        Histogram[] latency = new Histogram[tools];
+        Histogram[] serviceTime = new Histogram[tools];
+        LongAdder[] errors = new LongAdder[tools];
+        for (int i = 0; i < tools; i++) {
+            latency[i] = new ConcurrentHistogram(3);
+            serviceTime[i] = new ConcurrentHistogram(3);
+            errors[i] = new LongAdder();
+        }
+
+        // Sessions initialized with low ids; starting far above keeps load ids distinct from them
+        AtomicLong ids = new AtomicLong(1_000);
+        SplittableRandom random = new SplittableRandom();
+        double intervalNanos = 1e9 / settings.ratePerSecond();
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        long lateSends = 0;
+
+        try (ExecutorService dispatch = Executors.newVirtualThreadPerTaskExecutor()) {
+            double offset = 0;
+            for (long k = 0; ; k++) {
+                long intended = start + (long) offset;
+                if (intended >= end) {
+                    break;
+                }
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (-wait > LATE_THRESHOLD_NANOS && intended >= measureFrom) {
+                    lateSends++;
+                }
+
+                LoadTransport.Session session = sessions.get((int) (k % sessions.size()));
+                int tool = pickTool(random);
+                long id = ids.getAndIncrement();
+                boolean measured = intended >= measureFrom;
+                dispatch.execute(() -> {
+                    String request = templates[tool].render(id);
+                    long sent = System.nanoTime();
+                    CompletableFuture<String> pending = session.send(id, request);
+                    try {
+                        String response = pending.get(REQUEST_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+                        long done = System.nanoTime();
+                        if (measured) {
+                            latency[tool].recordValue((done - intended) / 1_000);
+                            serviceTime[tool].recordValue((done - sent) / 1_000);
+                            if (isError(response)) {
+                                errors[tool].increment();
+                            }
+                        }
+                    } catch (ExecutionException | TimeoutException e) {
+                        // A response that never comes must not keep its entry in the session's router
+                        pending.cancel(false);
+                        if (measured) {
+                            errors[tool].increment();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+
+                offset += settings.poissonArrivals()
+                        ? -Math.log(1 - random.nextDouble()) * intervalNanos
+                        : intervalNanos;
+            }
+        }
+        sessions.forEach(LoadTransport.Session::close);
+
+        Map<String, ToolResult> results = new LinkedHashMap<>();
+        for (int i = 0; i < tools; i++) {
+            results.put(settings.mix().get(i).tool(), new ToolResult(latency[i], serviceTime[i], errors[i].sum()));
+        }
+        return new Result(transport.name(), sessions.size(), (int) sessionFailures.sum(), lateSends, results);
+    }
+
+    /**
+     * One row per transport and tool, latency percentiles in milliseconds
+     */
+    public static String summary(List<Result> results) {
+        StringBuilder table = new StringBuilder(String.format("%n%-10s %-16s %9s %7s %9s %9s %9s %9s %9s %12s%n",
+                "transport", "tool", "count", "errors", "p50", "p90", "p99", "p99.9", "max", "p99 service"));
+        for (Result result : results) {
+            result.tools().forEach((tool, toolResult) -> {
+                Histogram latency = toolResult.latency();
+                table.append(String.format("%-10s %-16s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %12.1f%n",
+                        result.transport(), tool, latency.getTotalCount(), toolResult.errors(),
+                        latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(90) / 1000.0,
+                        latency.getValueAtPercentile(99) / 1000.0, latency.getValueAtPercentile(99.9) / 1000.0,
+                        latency.getMaxValue() / 1000.0, toolResult.serviceTime().getValueAtPercentile(99) / 1000.0));
+            });
+        }
+        return table.toString();
+    }
+
+    private int pickTool(SplittableRandom random) {
+        int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    private static boolean isError(String response) {
+        return response.contains("\"isError\":true") || response.contains("\"error\":{");
+    }
+}
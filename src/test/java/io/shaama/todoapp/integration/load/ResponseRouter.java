@@ -0,0 +1,78 @@
+package io.shaama.todoapp.integration.load;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Matches JSON-RPC responses that arrive on a shared channel (an SSE stream or stdout) to the
+ * request waiting for their id. Requests and notifications from the server are ignored. Only the
+ * top-level fields are read, the result itself is skipped over, not parsed.
+ */
+final class ResponseRouter {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final ConcurrentHashMap<Long, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Registers interest in the response to {@code id}; call before sending the request.
+     * Cancelling the returned future (a caller that gave up waiting) stops tracking the id.
+     */
+    CompletableFuture<String> expect(long id) {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        pending.put(id, response);
+        response.whenComplete((message, failure) -> pending.remove(id, response));
+        return response;
+    }
+
+    void accept(String message) {
+        long id = responseId(message);
+        if (id < 0) {
+            return;
+        }
+        CompletableFuture<String> response = pending.remove(id);
+        if (response != null) {
+            response.complete(message);
+        }
+    }
+
+    void fail(long id, Throwable cause) {
+        CompletableFuture<String> response = pending.remove(id);
+        if (response != null) {
+            response.completeExceptionally(cause);
+        }
+    }
+
+    void failAll(Throwable cause) {
+        pending.keySet().forEach(id -> fail(id, cause));
+    }
+
+    // The numeric id of a response, or -1 for anything else
+    static long responseId(String message) {
+        try (JsonParser parser = JSON.createParser(message)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return -1;
+            }
+            long id = -1;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("method".equals(field)) {
+                    return -1;
+                }
+                if ("id".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    id = parser.getLongValue();
+                }
+                parser.skipChildren();
+            }
+            return id;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
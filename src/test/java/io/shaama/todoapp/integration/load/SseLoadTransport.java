@@ -0,0 +1,109 @@
+package io.shaama.todoapp.integration.load;
+
+import io.shaama.todoapp.integration.util.JsonRpcMessageBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * SSE: one long-lived event stream per session carries every response. Requests are POSTed
+ * to the endpoint the stream announces first.
+ */
+public class SseLoadTransport implements LoadTransport {
+
+    private final String baseUrl;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    public SseLoadTransport(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public String name() {
+        return "sse";
+    }
+
+    @Override
+    public Session open() throws Exception {
+        HttpResponse<Stream<String>> stream = httpClient.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/sse")).header("Accept", "text/event-stream").GET().build(),
+                HttpResponse.BodyHandlers.ofLines());
+        if (stream.statusCode() != 200) {
+            throw new IOException("SSE connect failed with " + stream.statusCode());
+        }
+        Stream<String> lines = stream.body();
+        Iterator<String> events = lines.iterator();
+        String endpoint = null;
+        while (endpoint == null && events.hasNext()) {
+            String line = events.next();
+            if (line.startsWith("data:")) {
+                endpoint = baseUrl + line.substring("data:".length()).trim();
+            }
+        }
+        if (endpoint == null) {
+            throw new IOException("SSE stream closed before announcing the message endpoint");
+        }
+
+        ResponseRouter router = new ResponseRouter();
+        Thread.ofVirtual().start(() -> {
+            try {
+                events.forEachRemaining(line -> {
+                    if (line.startsWith("data:")) {
+                        router.accept(line.substring("data:".length()).trim());
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Stream closed
+            }
+            router.failAll(new IOException("SSE stream closed"));
+        });
+
+        String messageUrl = endpoint;
+        Session session = new Session() {
+            @Override
+            public CompletableFuture<String> send(long id, String request) {
+                CompletableFuture<String> response = router.expect(id);
+                httpClient.sendAsync(post(messageUrl, request), HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((accepted, failure) -> {
+                            if (failure != null) {
+                                router.fail(id, failure);
+                            } else if (accepted.statusCode() / 100 != 2) {
+                                router.fail(id, new IllegalStateException("HTTP " + accepted.statusCode()));
+                            }
+                        });
+                return response;
+            }
+
+            @Override
+            public void close() {
+                lines.close();
+            }
+        };
+
+        // A fresh builder numbers initialize 1; it is answered before the load reuses any id
+        JsonRpcMessageBuilder jsonRpcBuilder = new JsonRpcMessageBuilder();
+        session.send(1, jsonRpcBuilder.createInitializeRequest()).get(30, TimeUnit.SECONDS);
+        httpClient.send(post(messageUrl, jsonRpcBuilder.createInitializedNotification()), HttpResponse.BodyHandlers.discarding());
+        return session;
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package io.shaama.todoapp.integration.load;
+
+import io.shaama.todoapp.integration.util.JsonRpcMessageBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * stdio: a stdio server serves exactly one client, so every session is its own server process
+ * started from {@code jar}. Requests are written to its stdin and responses read from its stdout.
+ */
+public class StdioLoadTransport implements LoadTransport {
+
+    private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    private final Path jar;
+    private final List<String> jvmArgs;
+
+    public StdioLoadTransport(Path jar, List<String> jvmArgs) {
+        this.jar = jar;
+        this.jvmArgs = jvmArgs;
+    }
+
+    @Override
+    public String name() {
+        return "stdio";
+    }
+
+    @Override
+    public Session open() throws Exception {
+        List<String> command = new ArrayList<>(List.of(JAVA));
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-Dspring.profiles.active=stdio", "-jar", jar.toAbsolutePath().toString()));
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        ResponseRouter router = new ResponseRouter();
+        Thread.ofVirtual().start(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    router.accept(line);
+                }
+            } catch (IOException e) {
+                // Process stopped
+            }
+            router.failAll(new IOException("stdio server exited"));
+        });
+
+        Writer stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        ReentrantLock writeLock = new ReentrantLock();
+        Session session = new Session() {
+            @Override
+            public CompletableFuture<String> send(long id, String request) {
+                CompletableFuture<String> response = router.expect(id);
+                try {
+                    writeLine(stdin, writeLock, request);
+                } catch (IOException e) {
+                    router.fail(id, e);
+                }
+                return response;
+            }
+
+            @Override
+            public void close() {
+                process.destroy();
+            }
+        };
+
+        // A fresh builder numbers initialize 1; it is answered before the load reuses any id
+        JsonRpcMessageBuilder jsonRpcBuilder = new JsonRpcMessageBuilder();
+        session.send(1, jsonRpcBuilder.createInitializeRequest()).get(60, TimeUnit.SECONDS);
+        writeLine(stdin, writeLock, jsonRpcBuilder.createInitializedNotification());
+        return session;
+    }
+
+    // One message per line; concurrent senders must not interleave
+    private static void writeLine(Writer stdin, ReentrantLock writeLock, String message) throws IOException {
+        writeLock.lock();
+        try {
+            stdin.write(message);
+            stdin.write('\n');
+            stdin.flush();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
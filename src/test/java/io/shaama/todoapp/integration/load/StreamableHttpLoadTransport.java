@@ -0,0 +1,79 @@
+package io.shaama.todoapp.integration.load;
+
+import io.shaama.todoapp.integration.util.JsonRpcMessageBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+/**
+ * Streamable HTTP: every request is its own POST and the response comes back in its body.
+ * Works for stateful and stateless servers; the session id is only sent when the server issued one.
+ */
+public class StreamableHttpLoadTransport implements LoadTransport {
+
+    private final String url;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    public StreamableHttpLoadTransport(String url) {
+        this.url = url;
+    }
+
+    @Override
+    public String name() {
+        return "streamable";
+    }
+
+    @Override
+    public Session open() throws IOException, InterruptedException {
+        JsonRpcMessageBuilder jsonRpcBuilder = new JsonRpcMessageBuilder();
+        HttpResponse<String> init = httpClient.send(post(null, jsonRpcBuilder.createInitializeRequest()),
+                HttpResponse.BodyHandlers.ofString());
+        if (init.statusCode() != 200) {
+            throw new IOException("initialize failed with " + init.statusCode() + ": " + init.body());
+        }
+        String sessionId = init.headers().firstValue("Mcp-Session-Id").orElse(null);
+        httpClient.send(post(sessionId, jsonRpcBuilder.createInitializedNotification()), HttpResponse.BodyHandlers.discarding());
+
+        return new Session() {
+            @Override
+            public CompletableFuture<String> send(long id, String request) {
+                return httpClient.sendAsync(post(sessionId, request), HttpResponse.BodyHandlers.ofString())
+                        .thenApply(response -> {
+                            if (response.statusCode() != 200) {
+                                throw new IllegalStateException("HTTP " + response.statusCode());
+                            }
+                            return response.body();
+                        });
+            }
+
+            @Override
+            public void close() {
+                if (sessionId != null) {
+                    httpClient.sendAsync(HttpRequest.newBuilder(URI.create(url)).header("Mcp-Session-Id", sessionId).DELETE().build(),
+                            HttpResponse.BodyHandlers.discarding());
+                }
+            }
+        };
+    }
+
+    private HttpRequest post(String sessionId, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json, text/event-stream")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (sessionId != null) {
+            builder.header("Mcp-Session-Id", sessionId);
+        }
+        return builder.build();
+    }
+}
@@ -7,100 +7,182 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Utility class for generating JSON-RPC messages for MCP testing
+ * Utility class for generating JSON-RPC messages for MCP testing.
+ * Messages are rendered into {@link Template}s once, so producing one only fills in the id.
  */
 public class JsonRpcMessageBuilder {
-    
+
+    private static final Template INITIALIZE = Template.of("""
+            {
+                "jsonrpc": "2.0",
+                "id": %d,
+                "method": "initialize",
+                "params": {
+                    "protocolVersion": "2025-03-26",
+                    "capabilities": {
+                        "roots": {
+                            "listChanged": true
+                        }
+                    },
+                    "clientInfo": {
+                        "name": "Visual Studio Code",
+                        "version": "1.99.2"
+                    }
+                }
+            }""");
+
+    private static final Template SAMPLING_INITIALIZE = Template.of("""
+            {
+                "jsonrpc": "2.0",
+                "id": %d,
+                "method": "initialize",
+                "params": {
+                    "protocolVersion": "2025-03-26",
+                    "capabilities": {
+                        "sampling": {}
+                    },
+                    "clientInfo": {
+                        "name": "todo-load-test",
+                        "version": "1.0.0"
+                    }
+                }
+            }""");
+
+    private static final String INITIALIZED_NOTIFICATION = compact("""
+            {
+                "method": "notifications/initialized",
+                "jsonrpc": "2.0"
+            }""");
+
+    private static final Template TOOLS_LIST = Template.of("""
+            {
+                "jsonrpc": "2.0",
+                "id": %d,
+                "method": "tools/list",
+                "params": {}
+            }""");
+
+    /**
+     * A request with everything but the id rendered. Thread-safe, so one instance can serve
+     * every session of a load test.
+     */
+    public static final class Template {
+
+        private static final String ID_SLOT = "%d";
+
+        private final String head;
+        private final String tail;
+
+        private Template(String head, String tail) {
+            this.head = head;
+            this.tail = tail;
+        }
+
+        /**
+         * Compacts the JSON once; its first {@code %d} is where the id goes
+         */
+        static Template of(String json) {
+            String compacted = compact(json);
+            int slot = compacted.indexOf(ID_SLOT);
+            return new Template(compacted.substring(0, slot), compacted.substring(slot + ID_SLOT.length()));
+        }
+
+        public String render(long id) {
+            return new StringBuilder(head.length() + tail.length() + 20)
+                    .append(head).append(id).append(tail)
+                    .toString();
+        }
+    }
+
     private final AtomicInteger idCounter = new AtomicInteger(1);
     private final ObjectMapper objectMapper = new ObjectMapper();
-    
+
     /**
      * Generates the next sequential ID for requests
      */
     private int nextId() {
         return idCounter.getAndIncrement();
     }
-    
+
     /**
      * Reset ID counter (useful for tests)
      */
     public void resetIdCounter() {
         idCounter.set(1);
     }
-    
+
     /**
      * Creates an MCP initialize request
      */
     public String createInitializeRequest() {
-        return String.format("""
-                {
-                    "jsonrpc": "2.0",
-                    "id": %d,
-                    "method": "initialize",
-                    "params": {
-                        "protocolVersion": "2025-03-26",
-                        "capabilities": {
-                            "roots": {
-                                "listChanged": true
-                            }
-                        },
-                        "clientInfo": {
-                            "name": "Visual Studio Code",
-                            "version": "1.99.2"
-                        }
-                    }
-                }""", nextId()).replaceAll("\\s+", " ").trim();
+        return INITIALIZE.render(nextId());
+    }
+
+    /**
+     * Creates an MCP initialize request from a client that can answer sampling requests
+     */
+    public String createSamplingInitializeRequest() {
+        return SAMPLING_INITIALIZE.render(nextId());
     }
-    
+
     /**
      * Creates an MCP initialized notification
      */
     public String createInitializedNotification() {
-        return """
-                {
-                    "method": "notifications/initialized",
-                    "jsonrpc": "2.0"
-                }""".replaceAll("\\s+", " ").trim();
+        return INITIALIZED_NOTIFICATION;
     }
-    
+
     /**
      * Creates a tools/list request
      */
     public String createToolsListRequest() {
-        return String.format("""
-                {
-                    "jsonrpc": "2.0",
-                    "id": %d,
-                    "method": "tools/list",
-                    "params": {}
-                }""", nextId()).replaceAll("\\s+", " ").trim();
+        return TOOLS_LIST.render(nextId());
     }
-    
+
     /**
      * Creates a generic tool call request
      */
     public String createToolCallRequest(String toolName, Map<String, Object> arguments) {
+        return toolCallTemplate(toolName, arguments).render(nextId());
+    }
+
+    /**
+     * Renders a tools/call request once for repeated use with different ids.
+     * The arguments are written as they are, without compacting whitespace inside values.
+     */
+    public Template toolCallTemplate(String toolName, Map<String, Object> arguments) {
         try {
-            String argumentsJson = objectMapper.writeValueAsString(arguments);
-            return String.format("""
-                    {
-                        "jsonrpc": "2.0",
-                        "id": %d,
-                        "method": "tools/call",
-                        "params": {
-                            "name": "%s",
-                            "arguments": %s
-                        }
-                    }""", nextId(), toolName, argumentsJson).replaceAll("\\s+", " ").trim();
+            return new Template("{ \"jsonrpc\": \"2.0\", \"id\": ",
+                    ", \"method\": \"tools/call\", \"params\": { \"name\": " + objectMapper.writeValueAsString(toolName)
+                            + ", \"arguments\": " + objectMapper.writeValueAsString(arguments) + " } }");
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failed to serialize arguments", e);
         }
     }
-    
+
+    /**
+     * Creates the client's reply to a server sampling/createMessage request.
+     * The id is passed as raw JSON so string and numeric ids round-trip unchanged.
+     */
+    public String createSamplingResult(String requestIdJson, String text) {
+        try {
+            return "{ \"jsonrpc\": \"2.0\", \"id\": " + requestIdJson
+                    + ", \"result\": { \"role\": \"assistant\", \"content\": { \"type\": \"text\", \"text\": "
+                    + objectMapper.writeValueAsString(text)
+                    + " }, \"model\": \"load-test\", \"stopReason\": \"endTurn\" } }";
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize sampling text", e);
+        }
+    }
+
     /**
      * Creates a movie info tool call request (backward compatibility)
      */
     public String createTodoToolCallRequest(String movieName) {
         return createToolCallRequest("fetchAllTodos", Map.of());
     }
-}
\ No newline at end of file
+
+    private static String compact(String json) {
+        return json.replaceAll("\\s+", " ").trim();
+    }
+}
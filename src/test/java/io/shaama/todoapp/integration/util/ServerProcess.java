@@ -0,0 +1,125 @@
+package io.shaama.todoapp.integration.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Runs the server as a separate JVM for startup measurements. Every stdout line is stamped
+ * with the time it arrived, counted from the moment the process was launched, so log lines
+ * and stdio responses can be timed alike.
+ */
+public class ServerProcess implements AutoCloseable {
+
+    /**
+     * A stdout line and the nanoseconds between launch and its arrival
+     */
+    public record Line(String text, long nanosSinceLaunch) {
+    }
+
+    private final Process process;
+    private final long launchNanos;
+    private final PrintWriter stdin;
+    private final BlockingQueue<Line> lines = new LinkedBlockingQueue<>();
+    private final List<Line> history = new ArrayList<>();
+
+    private ServerProcess(Process process, long launchNanos) {
+        this.process = process;
+        this.launchNanos = launchNanos;
+        this.stdin = new PrintWriter(process.getOutputStream(), true, StandardCharsets.UTF_8);
+        Thread.ofVirtual().name("server-stdout-" + process.pid()).start(this::readStdout);
+    }
+
+    /**
+     * Launches {@code command} in {@code workDir}; stderr is merged into stdout
+     */
+    public static ServerProcess launch(List<String> command, Path workDir) throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(command)
+            .directory(workDir.toFile())
+            .redirectErrorStream(true);
+        long launchNanos = System.nanoTime();
+        return new ServerProcess(builder.start(), launchNanos);
+    }
+
+    /**
+     * Returns a port that was free a moment ago
+     */
+    public static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getLaunchNanos() {
+        return launchNanos;
+    }
+
+    public long nanosSinceLaunch() {
+        return System.nanoTime() - launchNanos;
+    }
+
+    /**
+     * Returns the first stdout line that matches, waiting for it if it has not arrived yet.
+     * Lines are kept, so the order of calls does not have to follow the order of output.
+     */
+    public Line awaitLine(Predicate<String> matcher, Duration timeout) throws InterruptedException {
+        for (Line line : history) {
+            if (matcher.test(line.text())) {
+                return line;
+            }
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            Line line = lines.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (line == null) {
+                throw new IllegalStateException("No matching line within " + timeout
+                    + (process.isAlive() ? "" : ", server exited with " + process.exitValue()));
+            }
+            history.add(line);
+            if (matcher.test(line.text())) {
+                return line;
+            }
+        }
+    }
+
+    /**
+     * Writes one line to the server's stdin, e.g. a JSON-RPC message for the stdio transport
+     */
+    public void send(String line) {
+        stdin.println(line);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private void readStdout() {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(new Line(line, nanosSinceLaunch()));
+            }
+        } catch (IOException e) {
+            // The process was stopped
+        }
+    }
+}
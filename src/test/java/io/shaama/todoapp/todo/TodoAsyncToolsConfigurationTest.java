@@ -0,0 +1,93 @@
+package io.shaama.todoapp.todo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TodoAsyncToolsConfigurationTest {
+
+    private final Scheduler scheduler = Schedulers.newBoundedElastic(2, 10, "todo-blocking");
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final McpAsyncServerExchange exchange = mock(McpAsyncServerExchange.class);
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    void toAsyncSpecification_ShouldRunToolBodyOnBlockingScheduler() {
+        // Given
+        AtomicReference<String> toolThread = new AtomicReference<>();
+        McpServerFeatures.AsyncToolSpecification specification = TodoAsyncToolsConfiguration.toAsyncSpecification(
+                tool("fetchTodoById", input -> {
+                    toolThread.set(Thread.currentThread().getName());
+                    return input;
+                }), scheduler, objectMapper);
+
+        // When
+        McpSchema.CallToolResult result = specification.callHandler()
+                .apply(exchange, new McpSchema.CallToolRequest("fetchTodoById", Map.of("id", 42)))
+                .block();
+
+        // Then
+        assertThat(result.isError()).isFalse();
+        assertThat(((McpSchema.TextContent) result.content().get(0)).text()).isEqualTo("{\"id\":42}");
+        assertThat(toolThread.get())
+                .startsWith("todo-blocking")
+                .isNotEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    void toAsyncSpecification_ShouldReturnToolExceptionAsErrorResult() {
+        // Given
+        McpServerFeatures.AsyncToolSpecification specification = TodoAsyncToolsConfiguration.toAsyncSpecification(
+                tool("removeTodo", input -> {
+                    throw new IllegalArgumentException("Todo not found");
+                }), scheduler, objectMapper);
+
+        // When
+        McpSchema.CallToolResult result = specification.callHandler()
+                .apply(exchange, new McpSchema.CallToolRequest("removeTodo", Map.of("id", 42)))
+                .block();
+
+        // Then
+        assertThat(result.isError()).isTrue();
+        assertThat(((McpSchema.TextContent) result.content().get(0)).text()).isEqualTo("Todo not found");
+    }
+
+    private static ToolCallback tool(String name, Function<String, String> body) {
+        ToolDefinition definition = ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+        return new ToolCallback() {
+            @Override
+            public ToolDefinition getToolDefinition() {
+                return definition;
+            }
+
+            @Override
+            public String call(String toolInput) {
+                return body.apply(toolInput);
+            }
+
+            @Override
+            public String call(String toolInput, ToolContext toolContext) {
+                return body.apply(toolInput);
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package io.shaama.todoapp.todo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoCacheTest {
+
+    private final TodoCache todoCache = new TodoCache(true, 100, Duration.ofMinutes(5));
+
+    @Test
+    void get_ShouldNotLeakOneCallersChangesToAnother() {
+        // Given
+        todoCache.get(1L, id -> Optional.of(todo(id, "Original")));
+
+        // When
+        todoCache.get(1L, id -> Optional.empty()).orElseThrow().setTitle("Changed");
+
+        // Then
+        assertThat(todoCache.get(1L, id -> Optional.empty())).get()
+                .extracting(Todo::getTitle).isEqualTo("Original");
+    }
+
+    @Test
+    void get_ShouldDropValueLoadedAcrossAnEviction() throws Exception {
+        // Given - a write evicts the id while a reader is still loading the row it read before the write
+        Thread[] evictor = new Thread[1];
+        Optional<Todo> stale = todoCache.get(1L, id -> {
+            evictor[0] = Thread.ofVirtual().start(() -> todoCache.evict(id));
+            try {
+                evictor[0].join(Duration.ofMillis(100));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of(todo(id, "Before update"));
+        });
+        evictor[0].join();
+
+        // When
+        Optional<Todo> next = todoCache.get(1L, id -> Optional.of(todo(id, "After update")));
+
+        // Then
+        assertThat(stale).get().extracting(Todo::getTitle).isEqualTo("Before update");
+        assertThat(next).get().extracting(Todo::getTitle).isEqualTo("After update");
+    }
+
+    private static Todo todo(Long id, String title) {
+        return Todo.builder().id(id).title(title).build();
+    }
+}
@@ -0,0 +1,139 @@
+package io.shaama.todoapp.todo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoFact;
+import io.shaama.todoapp.utils.McpLogging;
+import io.shaama.todoapp.utils.SamplingBatcher;
+import io.shaama.todoapp.utils.SamplingCache;
+import io.shaama.todoapp.utils.SamplingGuard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TodoFactServiceTest {
+
+    // Without an MCP exchange in the context sampling is skipped and no fact is produced
+    private final ToolContext noExchange = new ToolContext(Map.of());
+    private final Todo todo = Todo.builder().id(42L).title("Water plants").description("Balcony").build();
+
+    private TodoFactService factService;
+
+    @BeforeEach
+    void setUp() {
+        McpLogging mcpLogging = new McpLogging(100);
+        SamplingGuard guard = new SamplingGuard(Duration.ofSeconds(1), 4, 1, 3, Duration.ofSeconds(30));
+        SamplingBatcher batcher = new SamplingBatcher(guard, mcpLogging, new ObjectMapper(), true, Duration.ofMillis(20), 10);
+        factService = new TodoFactService(new ObjectMapper(), new SamplingCache(true, 100, Duration.ofMinutes(1)),
+                batcher, mcpLogging, TodoFactService.Mode.ASYNC, 100, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        factService.stop();
+    }
+
+    @Test
+    void generateAsync_ShouldReturnPendingAndCompleteInBackground() throws InterruptedException {
+        // When
+        TodoFact.Status status = factService.generateAsync(todo, samplingClient(() -> answer("Plants like rain water")));
+
+        // Then
+        assertThat(status).isEqualTo(TodoFact.Status.PENDING);
+        assertThat(awaitFact(TodoFact.Status.READY)).hasValueSatisfying(fact -> {
+            assertThat(fact.getTodoId()).isEqualTo(42L);
+            assertThat(fact.getFact()).isEqualTo("Plants like rain water");
+        });
+    }
+
+    @Test
+    void generateAsync_ShouldRecordFailedWhenSamplingFails() throws InterruptedException {
+        // When - the guard turns the client's error into an empty result
+        factService.generateAsync(todo, samplingClient(() -> {
+            throw new IllegalStateException("Client went away");
+        }));
+
+        // Then
+        assertThat(awaitFact(TodoFact.Status.FAILED)).hasValueSatisfying(fact -> {
+            assertThat(fact.getStatus()).isEqualTo(TodoFact.Status.FAILED);
+            assertThat(fact.getFact()).isNull();
+        });
+    }
+
+    @Test
+    void generateAsync_ShouldRecordFailedWithoutSamplingClient() throws InterruptedException {
+        // When
+        factService.generateAsync(todo, noExchange);
+
+        // Then
+        assertThat(awaitFact(TodoFact.Status.FAILED)).hasValueSatisfying(fact ->
+                assertThat(fact.getStatus()).isEqualTo(TodoFact.Status.FAILED));
+    }
+
+    @Test
+    void generate_ShouldStoreFactForLaterLookup() {
+        // When
+        TodoFact fact = factService.generate(todo, samplingClient(() -> answer("Plants like rain water")));
+
+        // Then
+        assertThat(fact.getStatus()).isEqualTo(TodoFact.Status.READY);
+        assertThat(fact.getFact()).isEqualTo("Plants like rain water");
+        assertThat(factService.getFact(42L)).hasValueSatisfying(stored ->
+                assertThat(stored.getStatus()).isEqualTo(TodoFact.Status.READY));
+        assertThat(factService.getFact(7L)).isEmpty();
+    }
+
+    @Test
+    void generate_ShouldReportFailedWithoutSamplingClient() {
+        // When
+        TodoFact fact = factService.generate(todo, noExchange);
+
+        // Then
+        assertThat(fact.getStatus()).isEqualTo(TodoFact.Status.FAILED);
+        assertThat(fact.getFact()).isNull();
+        assertThat(factService.getFact(42L)).hasValueSatisfying(stored ->
+                assertThat(stored.getStatus()).isEqualTo(TodoFact.Status.FAILED));
+    }
+
+    private static ToolContext samplingClient(Supplier<McpSchema.CreateMessageResult> answers) {
+        McpSyncServerExchange exchange = mock(McpSyncServerExchange.class);
+        when(exchange.sessionId()).thenReturn("session-1");
+        when(exchange.getClientCapabilities()).thenReturn(McpSchema.ClientCapabilities.builder().sampling().build());
+        when(exchange.createMessage(any())).thenAnswer(invocation -> answers.get());
+        return new ToolContext(Map.of(McpToolUtils.TOOL_CONTEXT_MCP_EXCHANGE_KEY, exchange));
+    }
+
+    private static McpSchema.CreateMessageResult answer(String text) {
+        return McpSchema.CreateMessageResult.builder()
+                .role(McpSchema.Role.ASSISTANT)
+                .content(new McpSchema.TextContent(text))
+                .model("test")
+                .build();
+    }
+
+    private Optional<TodoFact> awaitFact(TodoFact.Status status) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            Optional<TodoFact> fact = factService.getFact(42L);
+            if (fact.isPresent() && fact.get().getStatus() == status) {
+                return fact;
+            }
+            Thread.sleep(10);
+        }
+        return factService.getFact(42L);
+    }
+}
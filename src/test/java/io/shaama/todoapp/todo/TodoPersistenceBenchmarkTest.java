@@ -0,0 +1,83 @@
+package io.shaama.todoapp.todo;
+
+import io.shaama.todoapp.TodoappApplication;
+import io.shaama.todoapp.todo.model.TodoSpec;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Write throughput and restart (recovery) time of the persistent profile: fills the H2 file
+ * database, shuts the context down (which compacts the file), then reopens it and checks
+ * every row came back without the schema being rebuilt.
+ */
+@Disabled("Benchmark - run manually when needed")
+public class TodoPersistenceBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoPersistenceBenchmarkTest.class);
+
+    private static final int BATCHES = 200;
+    private static final int BATCH_SIZE = 500;
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void persistentProfile_ShouldRecoverAllTodosAfterRestart() {
+        int total = BATCHES * BATCH_SIZE;
+
+        long startNanos = System.nanoTime();
+        try (ConfigurableApplicationContext context = start()) {
+            log.info("Cold start on empty data dir: {} ms", millisSince(startNanos));
+            TodoService todoService = context.getBean(TodoService.class);
+
+            long writeNanos = System.nanoTime();
+            for (int b = 0; b < BATCHES; b++) {
+                int batch = b;
+                todoService.createTodos(IntStream.range(0, BATCH_SIZE)
+                        .mapToObj(i -> TodoSpec.builder().title("Todo " + batch + "-" + i).description("Persisted").build())
+                        .toList());
+            }
+            long writeMillis = millisSince(writeNanos);
+            log.info("Wrote {} todos in {} ms ({} todos/s)", total, writeMillis, total * 1000L / Math.max(1, writeMillis));
+        }
+        log.info("Shutdown incl. compaction finished after {} ms total", millisSince(startNanos));
+
+        long reopenNanos = System.nanoTime();
+        try (ConfigurableApplicationContext context = start()) {
+            log.info("Restart on existing data dir: {} ms", millisSince(reopenNanos));
+            TodoService todoService = context.getBean(TodoService.class);
+
+            long countNanos = System.nanoTime();
+            long recovered = todoService.streamAllTodos(1_000, chunk -> { });
+            log.info("Streamed {} recovered todos in {} ms", recovered, millisSince(countNanos));
+
+            assertThat(recovered).isEqualTo(total);
+            List<?> search = todoService.searchTodos("Persisted", 1);
+            assertThat(search).hasSize(1);
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(TodoappApplication.class)
+                .run("--spring.profiles.active=persistent",
+                        "--spring.main.web-application-type=none",
+                        "--spring.main.banner-mode=off",
+                        "--spring.ai.mcp.server.enabled=false",
+                        "--todo.data-dir=" + dataDir.toAbsolutePath());
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
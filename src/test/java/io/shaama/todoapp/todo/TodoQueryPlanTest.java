@@ -0,0 +1,125 @@
+package io.shaama.todoapp.todo;
+
+import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoFilter;
+import io.shaama.todoapp.todo.store.JpaTodoStore;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the filters behind fetchTodos are answered from the indexes declared on {@link Todo}
+ * rather than a full table scan. The plans are taken for the SQL Hibernate actually emits for
+ * {@link JpaTodoStore#find}, captured with a {@link StatementInspector}.
+ */
+@SpringBootTest(classes = io.shaama.todoapp.TodoappApplication.class, properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "io.shaama.todoapp.todo.TodoQueryPlanTest$CapturingStatementInspector")
+@Transactional
+@ActiveProfiles("test")
+public class TodoQueryPlanTest {
+
+    private static final int LIMIT = 50;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private JpaTodoStore jpaTodoStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 200; i++) {
+            todoRepository.save(Todo.builder()
+                    .title("Todo " + i)
+                    .completed(i % 2 == 0)
+                    .createdAt(now.minusHours(i))
+                    .updatedAt(now.minusMinutes(i))
+                    .build());
+        }
+        todoRepository.flush();
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void updatedAtRange_ShouldUseUpdatedAtIndex() {
+        String plan = explain(TodoFilter.builder()
+                .updatedAfter(LocalDateTime.now().minusMinutes(10))
+                .build());
+
+        assertThat(plan).containsIgnoringCase("IDX_TODO_UPDATED_AT");
+    }
+
+    @Test
+    void completedWithUpdatedAtRange_ShouldUseCompositeIndex() {
+        String plan = explain(TodoFilter.builder()
+                .completed(false)
+                .updatedAfter(LocalDateTime.now().minusMinutes(10))
+                .build());
+
+        assertThat(plan).containsIgnoringCase("IDX_TODO_COMPLETED_UPDATED_AT");
+    }
+
+    @Test
+    void createdAtRange_ShouldUseCreatedAtIndex() {
+        String plan = explain(TodoFilter.builder()
+                .createdAfter(LocalDateTime.now().minusHours(10))
+                .sort("createdAt,desc")
+                .build());
+
+        assertThat(plan).containsIgnoringCase("IDX_TODO_CREATED_AT");
+    }
+
+    /**
+     * Runs the filter through the store as fetchTodos does and explains the statement Hibernate sent.
+     */
+    private String explain(TodoFilter filter) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        jpaTodoStore.find(filter, LIMIT);
+        String sql = CapturingStatementInspector.STATEMENTS.stream()
+                .filter(statement -> statement.toLowerCase(Locale.ROOT).contains("from todo"))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("No query on todo was captured"));
+
+        // Parameters are bound in the order TodoSpecifications adds its predicates, then the row limit
+        List<Object> args = new ArrayList<>();
+        Stream.of(filter.getCompleted(), filter.getUpdatedAfter(), filter.getUpdatedBefore(), filter.getCreatedAfter())
+                .filter(Objects::nonNull)
+                .forEach(args::add);
+        long placeholders = sql.chars().filter(c -> c == '?').count();
+        while (args.size() < placeholders) {
+            args.add(LIMIT);
+        }
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args.toArray());
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.shaama.todoapp.todo;
+
+import io.shaama.todoapp.todo.model.Todo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoSearchIndexTest {
+
+    private TodoSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TodoSearchIndex();
+        index.put(Todo.builder().id(1L).title("Daily standup").description("Team sync at 9").build());
+        index.put(Todo.builder().id(2L).title("Buy milk").description("Remember the standup snacks").build());
+        index.put(Todo.builder().id(3L).title("File taxes").description(null).build());
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesFirst() {
+        assertThat(index.search("standup", 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void search_ShouldBeCaseInsensitiveAndRespectLimit() {
+        assertThat(index.search("STANDUP", 1)).containsExactly(1L);
+    }
+
+    @Test
+    void put_ShouldReplacePreviousTermsOfSameTodo() {
+        index.put(Todo.builder().id(3L).title("Standup notes").build());
+
+        assertThat(index.search("taxes", 10)).isEmpty();
+        assertThat(index.search("standup", 10)).contains(3L);
+    }
+
+    @Test
+    void remove_ShouldDropTodoFromResults() {
+        index.remove(1L);
+
+        assertThat(index.search("standup", 10)).containsExactly(2L);
+    }
+}
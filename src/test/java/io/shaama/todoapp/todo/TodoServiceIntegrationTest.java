@@ -1,16 +1,21 @@
 package io.shaama.todoapp.todo;
 
 import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoFilter;
+import io.shaama.todoapp.todo.model.TodoPage;
+import io.shaama.todoapp.todo.model.TodoSpec;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest(classes = io.shaama.todoapp.TodoappApplication.class)
 @Transactional
@@ -20,6 +25,9 @@ public class TodoServiceIntegrationTest {
     @Autowired
     private TodoService todoService;
 
+    @Autowired
+    private TodoCache todoCache;
+
     @Test
     void createTodo_ShouldSaveTodoAndSetTimestamps() {
         // Given
@@ -126,4 +134,115 @@ public class TodoServiceIntegrationTest {
         // Then
         assertThat(deleted).isFalse();
     }
+
+    @Test
+    void getTodoPage_ShouldWalkAllTodosWithCursor() {
+        // Given
+        for (int i = 1; i <= 5; i++) {
+            todoService.createTodo(Todo.builder().title("Todo " + i).build());
+        }
+
+        // When
+        TodoPage first = todoService.getTodoPage(null, 2);
+        TodoPage second = todoService.getTodoPage(first.getNextCursor(), 2);
+        TodoPage last = todoService.getTodoPage(second.getNextCursor(), 2);
+
+        // Then
+        assertThat(first.getItems()).extracting("title").containsExactly("Todo 1", "Todo 2");
+        assertThat(second.getItems()).extracting("title").containsExactly("Todo 3", "Todo 4");
+        assertThat(last.getItems()).extracting("title").containsExactly("Todo 5");
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getTodoPage_WithInvalidCursor_ShouldThrow() {
+        assertThatThrownBy(() -> todoService.getTodoPage("not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void streamAllTodos_ShouldDeliverAllTodosInChunks() {
+        // Given
+        for (int i = 1; i <= 5; i++) {
+            todoService.createTodo(Todo.builder().title("Todo " + i).build());
+        }
+        List<List<Todo>> chunks = new ArrayList<>();
+
+        // When
+        long count = todoService.streamAllTodos(2, chunks::add);
+
+        // Then
+        assertThat(count).isEqualTo(5);
+        assertThat(chunks).extracting(List::size).containsExactly(2, 2, 1);
+    }
+
+    @Test
+    void upsertTodos_ShouldUpdateExistingAndCreateNew() {
+        // Given
+        Todo existing = todoService.createTodo(Todo.builder().title("Existing").build());
+
+        // When
+        List<Todo> saved = todoService.upsertTodos(List.of(
+                TodoSpec.builder().id(existing.getId()).title("Renamed").completed(true).build(),
+                TodoSpec.builder().title("Brand new").build()));
+
+        // Then
+        assertThat(saved).hasSize(2);
+        assertThat(saved.get(0).getId()).isEqualTo(existing.getId());
+        assertThat(saved.get(1).getId()).isNotNull().isNotEqualTo(existing.getId());
+        assertThat(todoService.getTodoById(existing.getId()))
+                .hasValueSatisfying(todo -> assertThat(todo.getTitle()).isEqualTo("Renamed"));
+        assertThat(todoService.getAllTodos()).extracting("title")
+                .containsExactlyInAnyOrder("Renamed", "Brand new");
+    }
+
+    @Test
+    void updateTodo_WithStaleVersion_ShouldThrowConflict() {
+        // Given
+        Todo savedTodo = todoService.createTodo(Todo.builder().title("Original Title").build());
+        Long version = todoService.getTodoById(savedTodo.getId()).orElseThrow().getVersion();
+        todoService.updateTodo(savedTodo.getId(), Todo.builder().title("First writer").build(), version);
+
+        // When / Then
+        assertThatThrownBy(() -> todoService.updateTodo(savedTodo.getId(),
+                Todo.builder().title("Second writer").build(), version))
+                .isInstanceOf(TodoVersionConflictException.class);
+        assertThat(todoService.getTodoById(savedTodo.getId()))
+                .hasValueSatisfying(todo -> assertThat(todo.getTitle()).isEqualTo("First writer"));
+    }
+
+    @Test
+    void findTodos_ShouldApplyFiltersSortAndLimit() {
+        // Given
+        todoService.createTodo(Todo.builder().title("Open 1").build());
+        todoService.createTodo(Todo.builder().title("Done").completed(true).build());
+        todoService.createTodo(Todo.builder().title("Open 2").build());
+
+        // When
+        List<Todo> open = todoService.findTodos(TodoFilter.builder()
+                .completed(false)
+                .sort("title,desc")
+                .limit(1)
+                .build());
+
+        // Then
+        assertThat(open).extracting("title").containsExactly("Open 2");
+    }
+
+    @Test
+    void getTodoById_ShouldServeRepeatedLookupsFromCacheUntilUpdated() {
+        // Given
+        Todo savedTodo = todoService.createTodo(Todo.builder().title("Cached").build());
+        todoService.getTodoById(savedTodo.getId());
+        long hitsBefore = todoCache.stats().hitCount();
+
+        // When
+        todoService.getTodoById(savedTodo.getId());
+        todoService.updateTodo(savedTodo.getId(), Todo.builder().title("Changed").build());
+
+        // Then
+        assertThat(todoCache.stats().hitCount()).isEqualTo(hitsBefore + 1);
+        assertThat(todoService.getTodoById(savedTodo.getId()))
+                .hasValueSatisfying(todo -> assertThat(todo.getTitle()).isEqualTo("Changed"));
+    }
 }
@@ -0,0 +1,89 @@
+package io.shaama.todoapp.todo;
+
+import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoSpec;
+import io.shaama.todoapp.todo.store.InMemoryTodoStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the service against {@link InMemoryTodoStore}, which, unlike the JPA store, has no
+ * entity validation of its own.
+ */
+class TodoServiceTest {
+
+    private final InMemoryTodoStore store = new InMemoryTodoStore();
+    private final TodoService todoService = new TodoService(store, new TodoSearchIndex(),
+            new TodoCache(false, 0, Duration.ZERO));
+
+    @Test
+    void createTodo_WithBlankTitle_ShouldBeRejected() {
+        assertThatThrownBy(() -> todoService.createTodo(Todo.builder().title("  ").build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Title is required");
+        assertThatThrownBy(() -> todoService.createTodo(Todo.builder().build()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(store.findAll()).isEmpty();
+    }
+
+    @Test
+    void createTodos_WithOneBlankTitle_ShouldWriteNothing() {
+        // Given
+        List<TodoSpec> specs = List.of(
+                TodoSpec.builder().title("Valid").build(),
+                TodoSpec.builder().title("").build());
+
+        // When / Then
+        assertThatThrownBy(() -> todoService.createTodos(specs))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Title is required");
+        assertThat(store.findAll()).isEmpty();
+    }
+
+    @Test
+    void upsertTodos_WithNullTitle_ShouldWriteNothing() {
+        // Given
+        Todo existing = todoService.createTodo(Todo.builder().title("Existing").build());
+        List<TodoSpec> specs = List.of(
+                TodoSpec.builder().id(existing.getId()).title("Renamed").build(),
+                TodoSpec.builder().build());
+
+        // When / Then
+        assertThatThrownBy(() -> todoService.upsertTodos(specs))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.findAll()).extracting(Todo::getTitle).containsExactly("Existing");
+    }
+
+    @Test
+    void updateTodo_WithBlankTitle_ShouldBeRejected() {
+        // Given
+        Todo existing = todoService.createTodo(Todo.builder().title("Existing").build());
+
+        // When / Then
+        assertThatThrownBy(() -> todoService.updateTodo(existing.getId(), Todo.builder().title(" ").build()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.findById(existing.getId())).hasValueSatisfying(
+                todo -> assertThat(todo.getTitle()).isEqualTo("Existing"));
+    }
+
+    @Test
+    void searchTodos_WithIndexDisabled_ShouldFindTodosWrittenElsewhere() {
+        // Given - a write that never went through this service, as on another instance
+        TodoService unindexed = new TodoService(store, new TodoSearchIndex(false), new TodoCache(false, 0, Duration.ZERO));
+        unindexed.rebuildSearchIndex();
+        Todo written = store.insert(Todo.builder().title("Written elsewhere").description("By another instance").build());
+        store.insert(Todo.builder().title("Written here").build());
+
+        // When
+        List<Todo> found = unindexed.searchTodos("ELSEWHERE another", null);
+
+        // Then - every word must match, in the title or the description
+        assertThat(found).extracting(Todo::getId).containsExactly(written.getId());
+    }
+}
@@ -0,0 +1,68 @@
+package io.shaama.todoapp.todo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.store.InMemoryTodoStore;
+import io.shaama.todoapp.utils.Progress;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.model.ToolContext;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TodoToolsTest {
+
+    @Test
+    void fetchAllTodosStreaming_WithoutExchange_ShouldStopAfterFirstChunk() throws Exception {
+        // Given
+        InMemoryTodoStore store = new InMemoryTodoStore();
+        IntStream.range(0, 10).forEach(i -> store.insert(Todo.builder().title("Todo " + i).build()));
+        ObjectMapper objectMapper = spy(new ObjectMapper().findAndRegisterModules());
+        TodoTools todoTools = new TodoTools(
+                new TodoService(store, new TodoSearchIndex(), new TodoCache(false, 0, Duration.ZERO)),
+                mock(TodoFactService.class), objectMapper);
+
+        // When / Then - a tool context without an MCP exchange cannot carry progress notifications
+        assertThatThrownBy(() -> todoTools.fetchAllTodosStreaming(2, new ToolContext(Map.of())))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("fetchTodosPage");
+        verify(objectMapper, times(1)).writeValueAsString(any());
+    }
+
+    @Test
+    void fetchAllTodosStreaming_ShouldSendChunksOnTheRequestsProgressToken() {
+        // Given - the client asks for progress in _meta, not in the tool arguments
+        InMemoryTodoStore store = new InMemoryTodoStore();
+        IntStream.range(0, 5).forEach(i -> store.insert(Todo.builder().title("Todo " + i).build()));
+        TodoTools todoTools = new TodoTools(
+                new TodoService(store, new TodoSearchIndex(), new TodoCache(false, 0, Duration.ZERO)),
+                mock(TodoFactService.class), new ObjectMapper().findAndRegisterModules());
+        McpSyncServerExchange exchange = mock(McpSyncServerExchange.class);
+        McpSchema.CallToolRequest request = new McpSchema.CallToolRequest(
+                "fetchAllTodosStreaming", Map.of("chunkSize", 2), Map.of("progressToken", "token-1"));
+
+        // When
+        long sent = todoTools.fetchAllTodosStreaming(2, Progress.toolContext(exchange, request));
+
+        // Then
+        assertThat(sent).isEqualTo(5);
+        ArgumentCaptor<McpSchema.ProgressNotification> notifications =
+                ArgumentCaptor.forClass(McpSchema.ProgressNotification.class);
+        verify(exchange, times(3)).progressNotification(notifications.capture());
+        assertThat(notifications.getAllValues())
+                .extracting(McpSchema.ProgressNotification::progressToken)
+                .containsOnly("token-1");
+    }
+}
@@ -0,0 +1,93 @@
+package io.shaama.todoapp.todo;
+
+import io.shaama.todoapp.todo.model.Todo;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares one-transaction-per-insert against the group-commit path of
+ * {@link TodoService#createTodo} with many concurrent writers.
+ */
+@Disabled("Benchmark - run manually when needed")
+@SpringBootTest(classes = io.shaama.todoapp.TodoappApplication.class)
+@ActiveProfiles("test")
+public class TodoWriteBatcherBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoWriteBatcherBenchmarkTest.class);
+
+    private static final int WRITERS = 32;
+    private static final int INSERTS_PER_WRITER = 500;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void groupCommit_ShouldOutperformCommitPerInsert() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // Warm up both paths so JIT and connection pool are settled
+        run(todo -> transactionTemplate.execute(status -> todoRepository.save(todo)), 2_000);
+        run(todoService::createTodo, 2_000);
+
+        double perInsert = run(todo -> transactionTemplate.execute(status -> todoRepository.save(todo)),
+                WRITERS * INSERTS_PER_WRITER);
+        double grouped = run(todoService::createTodo, WRITERS * INSERTS_PER_WRITER);
+
+        log.info("Commit per insert: {} inserts/s", String.format("%.0f", perInsert));
+        log.info("Group commit:      {} inserts/s ({}x)", String.format("%.0f", grouped),
+                String.format("%.2f", grouped / perInsert));
+
+        assertThat(grouped).isGreaterThan(perInsert);
+    }
+
+    private double run(Function<Todo, Todo> insert, int total) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < total / WRITERS; i++) {
+                        Todo saved = insert.apply(Todo.builder()
+                                .title("Bench " + writer + "-" + i)
+                                .createdAt(LocalDateTime.now())
+                                .updatedAt(LocalDateTime.now())
+                                .build());
+                        assertThat(saved.getId()).isNotNull();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            return (total / WRITERS) * WRITERS / (elapsed / 1_000_000_000.0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.shaama.todoapp.todo.store;
+
+import io.shaama.todoapp.todo.TodoVersionConflictException;
+import io.shaama.todoapp.todo.model.Todo;
+import io.shaama.todoapp.todo.model.TodoFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryTodoStoreTest {
+
+    private InMemoryTodoStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryTodoStore();
+    }
+
+    @Test
+    void insert_ShouldAssignIdsAndRoundTripTimestamps() {
+        LocalDateTime now = LocalDateTime.now();
+
+        Todo saved = store.insert(todo("First", now));
+
+        assertThat(saved.getId()).isPositive();
+        assertThat(saved.getVersion()).isZero();
+        assertThat(store.findById(saved.getId()))
+                .hasValueSatisfying(found -> assertThat(found.getCreatedAt()).isEqualTo(now));
+    }
+
+    @Test
+    void findPageAfter_ShouldReturnAscendingIdsAfterCursor() {
+        List<Long> ids = IntStream.range(0, 1_000)
+                .mapToObj(i -> store.insert(todo("Todo " + i, LocalDateTime.now())).getId())
+                .toList();
+
+        List<Todo> page = store.findPageAfter(ids.get(9), 5);
+
+        assertThat(page).extracting(Todo::getId).containsExactlyElementsOf(ids.subList(10, 15));
+    }
+
+    @Test
+    void delete_ShouldKeepOtherTodosReachable() {
+        List<Long> ids = IntStream.range(0, 1_000)
+                .mapToObj(i -> store.insert(todo("Todo " + i, LocalDateTime.now())).getId())
+                .toList();
+
+        ids.stream().filter(id -> id % 3 == 0).forEach(id -> assertThat(store.delete(id, null)).isTrue());
+
+        assertThat(store.findAll()).hasSize(1_000 - (int) ids.stream().filter(id -> id % 3 == 0).count());
+        ids.forEach(id -> assertThat(store.findById(id).isPresent()).isEqualTo(id % 3 != 0));
+    }
+
+    @Test
+    void update_WithStaleVersion_ShouldThrowConflict() {
+        Todo saved = store.insert(todo("Original", LocalDateTime.now()));
+        store.update(saved.getId(), todo("First writer", LocalDateTime.now()), 0L);
+
+        assertThatThrownBy(() -> store.update(saved.getId(), todo("Second writer", LocalDateTime.now()), 0L))
+                .isInstanceOf(TodoVersionConflictException.class);
+        assertThat(store.findById(saved.getId()))
+                .hasValueSatisfying(found -> assertThat(found.getVersion()).isEqualTo(1L));
+    }
+
+    @Test
+    void find_ShouldFilterSortAndLimit() {
+        LocalDateTime now = LocalDateTime.now();
+        store.insert(todo("Open old", now.minusDays(2)));
+        store.insert(todo("Open new", now));
+        Todo done = todo("Done", now);
+        done.setCompleted(true);
+        store.insert(done);
+
+        List<Todo> found = store.find(TodoFilter.builder()
+                .completed(false)
+                .updatedAfter(now.minusDays(1))
+                .build(), 10);
+
+        assertThat(found).extracting(Todo::getTitle).containsExactly("Open new");
+    }
+
+    private static Todo todo(String title, LocalDateTime at) {
+        return Todo.builder().title(title).createdAt(at).updatedAt(at).build();
+    }
+}
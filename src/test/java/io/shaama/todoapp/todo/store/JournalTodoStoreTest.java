@@ -0,0 +1,201 @@
+package io.shaama.todoapp.todo.store;
+
+import io.shaama.todoapp.todo.TodoVersionConflictException;
+import io.shaama.todoapp.todo.model.Todo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournalTodoStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private JournalTodoStore store;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void reopen_ShouldRecoverStateFromSnapshotAndJournal() throws Exception {
+        // Given - some writes before a snapshot and some after it
+        store = open(JournalTodoStore.FsyncPolicy.GROUP);
+        Todo kept = store.insert(todo("Kept"));
+        Todo removed = store.insert(todo("Removed"));
+        store.snapshot();
+        store.update(kept.getId(), todo("Kept, updated"), 0L);
+        store.delete(removed.getId(), null);
+        Todo added = store.insert(todo("Added after snapshot"));
+
+        // When
+        store.close();
+        store = open(JournalTodoStore.FsyncPolicy.GROUP);
+
+        // Then
+        assertThat(store.findAll()).extracting(Todo::getId).containsExactly(kept.getId(), added.getId());
+        assertThat(store.findById(kept.getId())).hasValueSatisfying(todo -> {
+            assertThat(todo.getTitle()).isEqualTo("Kept, updated");
+            assertThat(todo.getVersion()).isEqualTo(1L);
+        });
+        assertThat(store.insert(todo("Next")).getId()).isGreaterThan(added.getId());
+    }
+
+    @Test
+    void reopen_ShouldNotReuseIdOfTodoDeletedBeforeSnapshot() throws Exception {
+        // Given - the highest id is gone by the time the snapshot is written
+        store = open(JournalTodoStore.FsyncPolicy.GROUP);
+        store.insert(todo("Kept"));
+        Todo deleted = store.insert(todo("Deleted"));
+        store.delete(deleted.getId(), null);
+        store.snapshot();
+
+        // When
+        store.close();
+        store = open(JournalTodoStore.FsyncPolicy.GROUP);
+        Todo inserted = store.insert(todo("Inserted after restart"));
+
+        // Then
+        assertThat(inserted.getId()).isGreaterThan(deleted.getId());
+        assertThat(store.findById(deleted.getId())).isEmpty();
+    }
+
+    @Test
+    void reopen_ShouldReplayJournalWithoutSnapshot() throws Exception {
+        // Given
+        store = open(JournalTodoStore.FsyncPolicy.ALWAYS);
+        List<Long> ids = store.insertAll(IntStream.range(0, 500).mapToObj(i -> todo("Todo " + i)).toList())
+                .stream().map(Todo::getId).toList();
+        store = reopenWithoutSnapshot(store);
+
+        // Then
+        assertThat(store.findAll()).extracting(Todo::getId).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void reopen_ShouldStopAtTornLastEntry() throws Exception {
+        // Given - a valid entry followed by a frame whose payload never made it to disk
+        store = open(JournalTodoStore.FsyncPolicy.ALWAYS);
+        Todo saved = store.insert(todo("Durable"));
+        store = reopenWithoutSnapshot(store);
+        store.insert(todo("Torn"));
+        Path journal = journals().get(0);
+        store = reopenWithoutSnapshot(store, () -> corruptLastEntry(journal));
+
+        // Then
+        assertThat(store.findAll()).extracting(Todo::getTitle).containsExactly("Durable");
+        assertThat(store.insert(todo("After recovery")).getId()).isGreaterThan(saved.getId());
+    }
+
+    @Test
+    void update_WithStaleVersion_ShouldThrowConflict() throws Exception {
+        store = open(JournalTodoStore.FsyncPolicy.INTERVAL);
+        Todo saved = store.insert(todo("Versioned"));
+        store.update(saved.getId(), todo("First edit"), 0L);
+
+        assertThatThrownBy(() -> store.update(saved.getId(), todo("Stale edit"), 0L))
+                .isInstanceOf(TodoVersionConflictException.class);
+    }
+
+    @Test
+    void snapshot_ShouldDeleteOlderGenerations() throws Exception {
+        store = open(JournalTodoStore.FsyncPolicy.GROUP);
+        store.insert(todo("One"));
+        store.snapshot();
+        store.insert(todo("Two"));
+        store.snapshot();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .containsExactlyInAnyOrder("snapshot-0000000000000000002.bin", "journal-0000000000000000002.log");
+        }
+    }
+
+    private JournalTodoStore open(JournalTodoStore.FsyncPolicy fsync) throws IOException {
+        JournalTodoStore opened = new JournalTodoStore(directory, fsync, Duration.ofMillis(10),
+                Duration.ofHours(1), DataSize.ofKilobytes(64), DataSize.ofMegabytes(64));
+        opened.open();
+        return opened;
+    }
+
+    // Simulates a crash: the journal is left as written, without the shutdown snapshot
+    private JournalTodoStore reopenWithoutSnapshot(JournalTodoStore crashed) throws Exception {
+        return reopenWithoutSnapshot(crashed, () -> { });
+    }
+
+    private JournalTodoStore reopenWithoutSnapshot(JournalTodoStore crashed, IoAction beforeReopen) throws Exception {
+        List<Path> journals = journals();
+        List<byte[]> contents = journals.stream().map(JournalTodoStoreTest::read).toList();
+        crashed.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        for (int i = 0; i < journals.size(); i++) {
+            Files.write(journals.get(i), contents.get(i));
+        }
+        beforeReopen.run();
+        return open(JournalTodoStore.FsyncPolicy.ALWAYS);
+    }
+
+    private List<Path> journals() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("journal-")).sorted().toList();
+        }
+    }
+
+    private static void corruptLastEntry(Path journal) throws IOException {
+        byte[] content = Files.readAllBytes(journal);
+        int offset = 0;
+        while (offset + Integer.BYTES <= content.length) {
+            int length = ByteBuffer.wrap(content, offset, Integer.BYTES).getInt();
+            if (length <= 0) {
+                break;
+            }
+            offset += JournalFile.FRAME_OVERHEAD + length;
+        }
+        // Zero the tail of the last payload, as if the process died before it was written
+        for (int i = offset - JournalFile.FRAME_OVERHEAD; i < offset - Integer.BYTES; i++) {
+            content[i] = 0;
+        }
+        Files.write(journal, content, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static byte[] read(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Todo todo(String title) {
+        LocalDateTime now = LocalDateTime.now();
+        return Todo.builder().title(title).description("Description").createdAt(now).updatedAt(now).build();
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+}
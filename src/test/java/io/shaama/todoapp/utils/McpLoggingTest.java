@@ -0,0 +1,101 @@
+package io.shaama.todoapp.utils;
+
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class McpLoggingTest {
+
+    private McpLogging mcpLogging;
+    private McpSyncServerExchange exchange;
+
+    @BeforeEach
+    void setUp() {
+        mcpLogging = new McpLogging(100);
+        exchange = mock(McpSyncServerExchange.class);
+        when(exchange.sessionId()).thenReturn("session-1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        mcpLogging.stop();
+    }
+
+    @Test
+    void log_ShouldSendOnTheExchangeInBackground() {
+        mcpLogging.log(exchange, McpSchema.LoggingLevel.INFO, "test", "hello");
+
+        ArgumentCaptor<McpSchema.LoggingMessageNotification> sent =
+                ArgumentCaptor.forClass(McpSchema.LoggingMessageNotification.class);
+        verify(exchange, timeout(1000)).loggingNotification(sent.capture());
+        assertThat(sent.getValue().level()).isEqualTo(McpSchema.LoggingLevel.INFO);
+        assertThat(sent.getValue().data()).isEqualTo("hello");
+        assertThat(mcpLogging.sentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void log_WhileSendInFlight_ShouldCoalesceIdenticalMessages() throws InterruptedException {
+        // Given - the first send blocks until the duplicates are queued
+        CountDownLatch firstSendStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstSend = new CountDownLatch(1);
+        AtomicInteger sends = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (sends.incrementAndGet() == 1) {
+                firstSendStarted.countDown();
+                releaseFirstSend.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(exchange).loggingNotification(any());
+
+        // When
+        mcpLogging.log(exchange, McpSchema.LoggingLevel.ERROR, "test", "Start sampling");
+        assertThat(firstSendStarted.await(1, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 5; i++) {
+            mcpLogging.log(exchange, McpSchema.LoggingLevel.ERROR, "test", "Start sampling");
+        }
+        releaseFirstSend.countDown();
+
+        // Then - one send for the first message and one for the five queued behind it
+        ArgumentCaptor<McpSchema.LoggingMessageNotification> sent =
+                ArgumentCaptor.forClass(McpSchema.LoggingMessageNotification.class);
+        verify(exchange, timeout(1000).times(2)).loggingNotification(sent.capture());
+        assertThat(sent.getAllValues().get(1).data()).isEqualTo("Start sampling (x5)");
+        assertThat(mcpLogging.coalescedCount()).isEqualTo(4);
+        verify(exchange, times(2)).loggingNotification(any());
+    }
+
+    @Test
+    void flush_ShouldSendQueuedMessagesOnTheirOwnExchangeBeforeReturning() {
+        // Given - two calls of one session, as on Streamable HTTP where each has its own stream
+        McpSyncServerExchange otherCall = mock(McpSyncServerExchange.class);
+        when(otherCall.sessionId()).thenReturn("session-1");
+        mcpLogging.log(exchange, McpSchema.LoggingLevel.ERROR, "test", "from the first call");
+
+        // When
+        mcpLogging.flush(exchange);
+
+        // Then - sent without waiting for the background sender, and never on the other call
+        ArgumentCaptor<McpSchema.LoggingMessageNotification> sent =
+                ArgumentCaptor.forClass(McpSchema.LoggingMessageNotification.class);
+        verify(exchange).loggingNotification(sent.capture());
+        assertThat(sent.getValue().data()).isEqualTo("from the first call");
+        verify(otherCall, never()).loggingNotification(any());
+    }
+}
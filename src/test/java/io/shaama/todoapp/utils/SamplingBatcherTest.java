@@ -0,0 +1,187 @@
+package io.shaama.todoapp.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SamplingBatcherTest {
+
+    private final SamplingGuard guard = new SamplingGuard(Duration.ofSeconds(5), 64, 64, 5, Duration.ofSeconds(30));
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private Function<String, String> client;
+
+    private SamplingBatcher batcher;
+    private McpSyncServerExchange exchange;
+
+    @BeforeEach
+    void setUp() {
+        batcher = new SamplingBatcher(guard, new McpLogging(100), new ObjectMapper(), true, Duration.ofMillis(100), 20);
+        exchange = mock(McpSyncServerExchange.class);
+        when(exchange.sessionId()).thenReturn("session-1");
+        when(exchange.createMessage(any())).thenAnswer(invocation -> {
+            roundTrips.incrementAndGet();
+            McpSchema.CreateMessageRequest request = invocation.getArgument(0);
+            String content = ((McpSchema.TextContent) request.messages().get(0).content()).text().strip();
+            return McpSchema.CreateMessageResult.builder()
+                    .role(McpSchema.Role.ASSISTANT)
+                    .content(new McpSchema.TextContent(client.apply(content)))
+                    .model("test-model")
+                    .build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.stop();
+        guard.stop();
+    }
+
+    @Test
+    void sample_ShouldAnswerRequestsQueuedBehindAnInFlightOneWithOneRoundTrip() throws Exception {
+        // Given - the client answers a numbered list with a JSON array of "fact about <line>"
+        answerWith(content -> {
+            if (!content.startsWith("1. ")) {
+                return "fact about " + content;
+            }
+            List<String> facts = content.lines()
+                    .map(line -> "\"fact about " + line.substring(line.indexOf(". ") + 2) + "\"")
+                    .toList();
+            return "Sure! [" + String.join(", ", facts) + "]";
+        });
+
+        // When
+        List<String> answers = sampleBehindInFlightRequest(5);
+
+        // Then - one round trip for the request in flight, one for the five that queued behind it
+        assertThat(roundTrips.get()).isEqualTo(2);
+        for (int i = 0; i < 5; i++) {
+            assertThat(answers.get(i)).isEqualTo("fact about todo " + i);
+        }
+    }
+
+    @Test
+    void sample_ShouldFallBackToSingleRequestsWhenReplyIsUnusable() throws Exception {
+        // Given - a batched reply that is not a JSON array
+        answerWith(content -> content.lines().count() > 1 ? "I cannot do lists" : "single: " + content);
+
+        // When
+        List<String> answers = sampleBehindInFlightRequest(3);
+
+        // Then - the request in flight, one batched attempt and one request per todo
+        assertThat(roundTrips.get()).isEqualTo(5);
+        assertThat(answers).containsExactly("single: todo 0", "single: todo 1", "single: todo 2");
+    }
+
+    @Test
+    void sample_WithNothingInFlight_ShouldNotWaitForTheWindow() {
+        // Given - a window far longer than the round trip
+        SamplingBatcher slowWindow = new SamplingBatcher(guard, new McpLogging(100), new ObjectMapper(),
+                true, Duration.ofSeconds(30), 20);
+        answerWith(content -> "single: " + content);
+
+        try {
+            // When
+            long start = System.nanoTime();
+            String answer = slowWindow.sample(exchange, "Be witty.", "todo");
+
+            // Then
+            assertThat(answer).isEqualTo("single: todo");
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        } finally {
+            slowWindow.stop();
+        }
+    }
+
+    @Test
+    void stop_ShouldReleaseCallersOfOpenBatches() throws Exception {
+        // Given - a long window and a request in flight, so the next one waits in an open batch
+        SamplingBatcher slowWindow = new SamplingBatcher(guard, new McpLogging(100), new ObjectMapper(),
+                true, Duration.ofSeconds(30), 20);
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        answerWith(content -> {
+            inFlight.countDown();
+            await(release);
+            return "late";
+        });
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            callers.submit(() -> slowWindow.sample(exchange, "Be witty.", "first"));
+            assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<String> queued = callers.submit(() -> slowWindow.sample(exchange, "Be witty.", "queued"));
+            Thread.sleep(100);
+
+            // When
+            slowWindow.stop();
+
+            // Then
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEmpty();
+            release.countDown();
+        }
+    }
+
+    private void answerWith(Function<String, String> client) {
+        this.client = client;
+    }
+
+    // Holds one request in the client until the others have been queued, then returns the others' answers
+    private List<String> sampleBehindInFlightRequest(int count) throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, String> delegate = client;
+        answerWith(content -> {
+            if (content.equals("todo in flight")) {
+                inFlight.countDown();
+                await(release);
+            }
+            return delegate.apply(content);
+        });
+
+        List<Future<String>> futures = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = callers.submit(() -> batcher.sample(exchange, "Be witty.", "todo in flight"));
+            assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < count; i++) {
+                String content = "todo " + i;
+                futures.add(callers.submit(() -> batcher.sample(exchange, "Be witty.", content)));
+            }
+            for (Future<String> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        }
+        List<String> answers = new ArrayList<>();
+        for (Future<String> future : futures) {
+            answers.add(future.get());
+        }
+        return answers;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
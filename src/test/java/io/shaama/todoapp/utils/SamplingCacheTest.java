@@ -0,0 +1,81 @@
+package io.shaama.todoapp.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SamplingCacheTest {
+
+    private static final String SYSTEM = "You are a fun assistant.";
+
+    private final SamplingCache cache = new SamplingCache(true, 100, Duration.ofMinutes(1));
+    private final AtomicInteger samples = new AtomicInteger();
+
+    @Test
+    void get_ShouldServeNormalizedDuplicatesFromCache() {
+        String first = cache.get(SYSTEM, "Fact about  Daily Standup", () -> "fact " + samples.incrementAndGet());
+        String second = cache.get(SYSTEM, " fact about daily\tstandup ", () -> "fact " + samples.incrementAndGet());
+        String otherSystem = cache.get("Be terse.", "Fact about daily standup", () -> "fact " + samples.incrementAndGet());
+
+        assertThat(first).isEqualTo("fact 1");
+        assertThat(second).isEqualTo("fact 1");
+        assertThat(otherSystem).isEqualTo("fact 2");
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void get_ShouldCoalesceConcurrentIdenticalRequests() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                results.add(callers.submit(() -> cache.get(SYSTEM, "Buy milk", () -> {
+                    samples.incrementAndGet();
+                    await(release);
+                    return "Milk fact";
+                })));
+            }
+            // Let every caller reach the cache before the single sampler finishes
+            Thread.sleep(200);
+            release.countDown();
+        }
+
+        for (Future<String> result : results) {
+            assertThat(result.get()).isEqualTo("Milk fact");
+        }
+        assertThat(samples.get()).isEqualTo(1);
+        assertThat(cache.coalescedCount()).isPositive();
+    }
+
+    @Test
+    void get_ShouldNotCacheEmptyOrFailedResults() {
+        cache.get(SYSTEM, "No sampling client", () -> "");
+        assertThatThrownBy(() -> cache.get(SYSTEM, "Flaky client", () -> {
+            throw new IllegalStateException("client went away");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get(SYSTEM, "No sampling client", () -> "now sampled")).isEqualTo("now sampled");
+        assertThat(cache.get(SYSTEM, "Flaky client", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
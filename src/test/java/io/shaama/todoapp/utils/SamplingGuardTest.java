@@ -0,0 +1,112 @@
+package io.shaama.todoapp.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SamplingGuardTest {
+
+    private final SamplingGuard guard = new SamplingGuard(
+            Duration.ofMillis(100), 8, 1, 2, Duration.ofMillis(200));
+
+    @AfterEach
+    void tearDown() {
+        guard.stop();
+    }
+
+    @Test
+    void call_ShouldReturnEmptyWhenDeadlinePasses() {
+        String result = guard.call("session", () -> {
+            sleep(Duration.ofSeconds(5));
+            return "too late";
+        });
+
+        assertThat(result).isEmpty();
+        assertThat(guard.count(SamplingGuard.Outcome.TIMEOUT)).isEqualTo(1);
+    }
+
+    @Test
+    void attempt_ShouldTellWhyTheResultIsEmpty() {
+        assertThat(guard.attempt("session", () -> "fact"))
+                .isEqualTo(new SamplingGuard.Result("fact", SamplingGuard.Outcome.SUCCESS));
+        assertThat(guard.attempt("session", () -> {
+            throw new IllegalStateException("model unavailable");
+        })).isEqualTo(new SamplingGuard.Result("", SamplingGuard.Outcome.FAILURE));
+        assertThat(guard.attempt("session", () -> {
+            sleep(Duration.ofSeconds(5));
+            return "too late";
+        })).isEqualTo(new SamplingGuard.Result("", SamplingGuard.Outcome.TIMEOUT));
+    }
+
+    @Test
+    void call_ShouldOpenBreakerAfterRepeatedFailuresAndCloseAfterTrial() {
+        // Given - two consecutive failures reach the threshold
+        guard.call("session", () -> {
+            throw new IllegalStateException("model unavailable");
+        });
+        guard.call("session", () -> {
+            throw new IllegalStateException("model unavailable");
+        });
+
+        // Then - sampling is skipped while open
+        assertThat(guard.getBreakerState()).isEqualTo(SamplingGuard.BreakerState.OPEN);
+        assertThat(guard.call("session", () -> "fact")).isEmpty();
+        assertThat(guard.count(SamplingGuard.Outcome.SHORT_CIRCUITED)).isEqualTo(1);
+
+        // When - the open period ends and the trial call succeeds
+        sleep(Duration.ofMillis(250));
+        assertThat(guard.call("session", () -> "fact")).isEqualTo("fact");
+
+        // Then
+        assertThat(guard.getBreakerState()).isEqualTo(SamplingGuard.BreakerState.CLOSED);
+    }
+
+    @Test
+    void call_ShouldRejectBeyondPerSessionLimit() throws Exception {
+        // A deadline long enough that the first call is still running when the second arrives
+        SamplingGuard guard = new SamplingGuard(Duration.ofSeconds(5), 8, 1, 2, Duration.ofMillis(200));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = executor.submit(() -> guard.call("busy", () -> {
+                started.countDown();
+                await(release);
+                return "first";
+            }));
+            assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(guard.call("busy", () -> "second")).isEmpty();
+            assertThat(guard.call("other", () -> "other session")).isEqualTo("other session");
+
+            release.countDown();
+            assertThat(first.get()).isEqualTo("first");
+        }
+        assertThat(guard.count(SamplingGuard.Outcome.REJECTED)).isEqualTo(1);
+        guard.stop();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.shaama.todoapp.utils;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ToolMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ToolMetrics toolMetrics = new ToolMetrics(registry, false, "STREAMABLE");
+
+    @Test
+    void call_ShouldRecordSuccessfulCall() {
+        // Given
+        ToolCallback callback = toolMetrics.instrument(tool("fetchAllTodos", input -> "[]"));
+
+        // When
+        String result = callback.call("{}");
+
+        // Then
+        assertThat(result).isEqualTo("[]");
+        Timer timer = registry.get("todo.tool.calls")
+                .tags("tool", "fetchAllTodos", "transport", "streamable", "outcome", "success", "exception", "none")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(registry.get("todo.tool.in.flight").tag("tool", "fetchAllTodos").gauge().value()).isZero();
+    }
+
+    @Test
+    void call_ShouldTagErrorWithToolExceptionAndRethrow() {
+        // Given - the method callback wraps what the tool threw
+        ToolCallback callback = toolMetrics.instrument(tool("fetchTodoById", input -> {
+            throw new ToolExecutionException(ToolDefinition.builder().name("fetchTodoById").description("fetchTodoById").inputSchema("{}").build(),
+                    new IllegalArgumentException("Todo not found"));
+        }));
+
+        // When / Then
+        assertThatThrownBy(() -> callback.call("{\"id\":42}")).isInstanceOf(ToolExecutionException.class);
+        Timer timer = registry.get("todo.tool.calls")
+                .tags("tool", "fetchTodoById", "outcome", "error", "exception", "IllegalArgumentException")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(registry.get("todo.tool.in.flight").tag("tool", "fetchTodoById").gauge().value()).isZero();
+    }
+
+    @Test
+    void call_ShouldCountJdbcStatementsOfTheCall() throws Exception {
+        // Given
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        DataSource dataSource = new JdbcStatementCounter.CountingDataSource(target);
+
+        ToolCallback callback = toolMetrics.instrument(tool("makeTodo", input -> {
+            try (Connection c = dataSource.getConnection()) {
+                c.prepareStatement("select next value for todo_seq");
+                c.prepareStatement("insert into todo values (?, ?, ?)");
+                c.isClosed();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return "{}";
+        }));
+
+        // When
+        callback.call("{}");
+
+        // Then
+        var statements = registry.get("todo.tool.jdbc.statements").tag("tool", "makeTodo").summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void instrument_ShouldDeriveTransportFromConfiguration() {
+        assertThat(new ToolMetrics(registry, true, "SSE").getTransport()).isEqualTo("stdio");
+        assertThat(new ToolMetrics(registry, false, "STATELESS").getTransport()).isEqualTo("stateless");
+    }
+
+    private static ToolCallback tool(String name, Function<String, String> body) {
+        ToolDefinition definition = ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+        return new ToolCallback() {
+            @Override
+            public ToolDefinition getToolDefinition() {
+                return definition;
+            }
+
+            @Override
+            public String call(String toolInput) {
+                return body.apply(toolInput);
+            }
+        };
+    }
+}